@@ -0,0 +1,42 @@
+package application;
+
+/**
+ * Samples every densePeriod ticks while the global skew changes and every
+ * sparsePeriod ticks once it is stable, i.e. once it has changed by at most
+ * tolerance clock ticks over stableSamples consecutive samples. A larger
+ * change returns to the dense period.
+ */
+public class AdaptiveSamplingPolicy extends SamplingPolicy {
+
+	private final int sparsePeriod;
+	private final long tolerance;
+	private final int stableSamples;
+
+	private long lastSkew = -1;
+	private int stable = 0;
+
+	public AdaptiveSamplingPolicy(int densePeriod, int sparsePeriod, long tolerance,
+			int stableSamples) {
+		super(densePeriod, 1);
+		this.sparsePeriod = sparsePeriod;
+		this.tolerance = tolerance;
+		this.stableSamples = stableSamples;
+	}
+
+	@Override
+	public int getPeriod(SkewMetrics metrics) {
+		long skew = metrics.getGlobalSkew();
+
+		if (lastSkew >= 0 && Math.abs(skew - lastSkew) <= tolerance)
+			stable++;
+		else
+			stable = 0;
+		lastSkew = skew;
+
+		return isStable() ? sparsePeriod : period;
+	}
+
+	public boolean isStable() {
+		return stable >= stableSamples;
+	}
+}
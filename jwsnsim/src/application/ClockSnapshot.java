@@ -0,0 +1,97 @@
+package application;
+
+import nodes.Node;
+import application.trace.TracedNode;
+import core.Parallel;
+import core.Simulator;
+
+/**
+ * The logical clocks and rates of all nodes at one sampling point, read in
+ * parallel into preallocated arrays. Reading a logical clock does not change
+ * the node, so the nodes can be read from several threads while the
+ * simulation stands still. The arrays are indexed like the nodes and reused
+ * by the next sample.
+ */
+public class ClockSnapshot {
+
+	private long time = 0;
+	private int numNodes = 0;
+	private int[] ids = new int[0];
+	private int[] clocks = new int[0];
+	private float[] rates = new float[0];
+	private boolean[] traced = new boolean[0];
+
+	/**
+	 * Reads the nodes which implement {@link TracedNode}.
+	 */
+	public void take(Node[] nodes) {
+		take(nodes, Parallel.defaultThreads);
+	}
+
+	public void take(final Node[] nodes, int numThreads) {
+		if (clocks.length < nodes.length) {
+			ids = new int[nodes.length];
+			clocks = new int[nodes.length];
+			rates = new float[nodes.length];
+			traced = new boolean[nodes.length];
+		}
+
+		time = Simulator.getInstance().getTime().getTimeHigh();
+		numNodes = nodes.length;
+
+		Parallel.forChunks(nodes.length, numThreads, new Parallel.Body() {
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					if (nodes[i] instanceof TracedNode) {
+						TracedNode node = (TracedNode) nodes[i];
+						ids[i] = node.getID();
+						clocks[i] = node.getLogicalClock();
+						rates[i] = node.getRate();
+						traced[i] = true;
+					} else {
+						traced[i] = false;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * @return the simulation time of the sample in ticks
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	public int getNumNodes() {
+		return numNodes;
+	}
+
+	public boolean isTraced(int node) {
+		return traced[node];
+	}
+
+	public int getID(int node) {
+		return ids[node];
+	}
+
+	public int getClock(int node) {
+		return clocks[node];
+	}
+
+	public float getRate(int node) {
+		return rates[node];
+	}
+
+	/**
+	 * Appends the line of a traced node in the layout of the toString() of
+	 * the synchronization nodes: second, node ID, logical clock and the bits
+	 * of the rate.
+	 */
+	public void appendLine(int node, StringBuilder line) {
+		line.append(time / 1024 / 1024);
+		line.append(' ').append(ids[node]);
+		line.append(' ').append(clocks[node] & 0xFFFFFFFFL);
+		line.append(' ').append(Float.floatToIntBits(rates[node]));
+	}
+}
@@ -0,0 +1,73 @@
+package application;
+
+/**
+ * Detects the convergence of a synchronization simulation from the global
+ * skew of its sampling points. The network is converged once the global
+ * skew has stayed at most the bound for window seconds, the convergence
+ * time is the second of the first sample of that stretch. A larger skew
+ * later on starts the detection again.
+ */
+public class ConvergenceMonitor {
+
+	private final long bound;
+	private final long window;
+
+	/** second of the first sample under the bound, -1 if the last sample is above it */
+	private long since = -1;
+	private boolean converged = false;
+	private long samples = 0;
+
+	public ConvergenceMonitor(long bound, long window) {
+		this.bound = bound;
+		this.window = window;
+	}
+
+	/**
+	 * @return whether the network is converged with this sample
+	 */
+	public boolean sample(long second, long globalSkew) {
+		samples++;
+
+		if (globalSkew > bound) {
+			since = -1;
+			converged = false;
+		} else {
+			if (since < 0)
+				since = second;
+			converged = second - since >= window;
+		}
+
+		return converged;
+	}
+
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 * @return the second from which on the global skew stayed under the
+	 *         bound, or -1 if the network has not converged
+	 */
+	public long getConvergenceSecond() {
+		return converged ? since : -1;
+	}
+
+	/**
+	 * @return the number of skew samples, 0 if no node is traced
+	 */
+	public long getNumSamples() {
+		return samples;
+	}
+
+	public long getBound() {
+		return bound;
+	}
+
+	public String toString() {
+		if (samples == 0)
+			return "no skew samples, convergence to " + bound + " is not detected";
+		if (converged)
+			return "converged to " + bound + " at second " + since;
+		return "not converged to " + bound + " within a window of " + window + " seconds";
+	}
+}
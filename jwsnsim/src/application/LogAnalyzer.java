@@ -0,0 +1,546 @@
+package application;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import nodes.AdjacencyGraph;
+import sim.statistics.OnlineStatistics;
+import sim.statistics.P2Quantile;
+import core.Parallel;
+
+/**
+ * Computes the skews of text logs with "second nodeId clock rateBits"
+ * lines, as written by the toString() of the synchronization nodes and by
+ * {@link ClockSnapshot#appendLine}. The file is memory mapped and split
+ * into chunks at line boundaries which are parsed in parallel directly from
+ * the mapped bytes. For every second of the log the global skew, the local
+ * skew and the mean, minimum and maximum rate are computed; the seconds
+ * which are split between two chunks are merged afterwards.
+ *
+ * Local skews need the links between the nodes, which are not in the log:
+ * -line links node i to i+1, -grid W links the nodes of a row-major grid
+ * with W nodes per row and -edges reads "id id" lines. The convergence time
+ * is the first second from which on the global skew stays at most the
+ * threshold, the skew statistics are computed from there on.
+ *
+ * Usage: LogAnalyzer [-threads N] [-threshold T] [-line | -grid W | -edges file] [-csv output] logFile
+ */
+public class LogAnalyzer {
+
+	/** largest chunk, chunks are mapped as a whole */
+	private static final long MAX_CHUNK_SIZE = 1 << 28;
+
+	private static int gridWidth = 0;
+	private static boolean line = false;
+	private static AdjacencyGraph edges = null;
+
+	/**
+	 * Aggregates of the lines of one second.
+	 */
+	static class Second {
+		long second;
+		int count = 0;
+
+		/* clocks relative to the first clock, correct across wraparounds */
+		long reference;
+		int min = 0;
+		int max = 0;
+
+		double rateSum = 0;
+		float rateMin = Float.POSITIVE_INFINITY;
+		float rateMax = Float.NEGATIVE_INFINITY;
+
+		long localSkew = -1;
+
+		/* the clocks of the seconds which may be split between two chunks */
+		int[] ids = null;
+		int[] clocks = null;
+
+		Second(long second, long reference) {
+			this.second = second;
+			this.reference = reference;
+		}
+
+		void add(long clock, float rate) {
+			int difference = (int) (clock - reference);
+			if (difference < min)
+				min = difference;
+			if (difference > max)
+				max = difference;
+
+			rateSum += rate;
+			if (rate < rateMin)
+				rateMin = rate;
+			if (rate > rateMax)
+				rateMax = rate;
+			count++;
+		}
+
+		void merge(Second other) {
+			int delta = (int) (other.reference - reference);
+			min = Math.min(min, other.min + delta);
+			max = Math.max(max, other.max + delta);
+			rateSum += other.rateSum;
+			rateMin = Math.min(rateMin, other.rateMin);
+			rateMax = Math.max(rateMax, other.rateMax);
+
+			int[] mergedIds = new int[count + other.count];
+			int[] mergedClocks = new int[count + other.count];
+			System.arraycopy(ids, 0, mergedIds, 0, count);
+			System.arraycopy(clocks, 0, mergedClocks, 0, count);
+			System.arraycopy(other.ids, 0, mergedIds, count, other.count);
+			System.arraycopy(other.clocks, 0, mergedClocks, count, other.count);
+			ids = mergedIds;
+			clocks = mergedClocks;
+			count += other.count;
+		}
+
+		long getGlobalSkew() {
+			return (long) max - min;
+		}
+	}
+
+	/**
+	 * Clocks of the current second indexed by node ID, a node has a clock
+	 * in the second if its stamp is the stamp of the second.
+	 */
+	static class Clocks {
+		int[] values = new int[1024];
+		int[] stamps = new int[1024];
+		int stamp = 0;
+		int[] neighbors = new int[4];
+
+		long localSkew(int[] ids, int[] clocks, int count) {
+			if (edges == null && gridWidth == 0 && !line)
+				return -1;
+
+			stamp++;
+			for (int i = 0; i < count; i++) {
+				int id = ids[i];
+				if (id >= values.length) {
+					int size = Math.max(id + 1, values.length * 2);
+					int[] larger = new int[size];
+					System.arraycopy(values, 0, larger, 0, values.length);
+					values = larger;
+					larger = new int[size];
+					System.arraycopy(stamps, 0, larger, 0, stamps.length);
+					stamps = larger;
+				}
+				values[id] = clocks[i];
+				stamps[id] = stamp;
+			}
+
+			long skew = 0;
+			for (int i = 0; i < count; i++) {
+				int id = ids[i];
+				int degree = neighbors(id);
+				for (int k = 0; k < degree; k++) {
+					int j = neighbors[k];
+					if (j > 0 && j < values.length && stamps[j] == stamp) {
+						long difference = Math.abs((long) (values[id] - values[j]));
+						if (difference > skew)
+							skew = difference;
+					}
+				}
+			}
+
+			return skew;
+		}
+
+		/**
+		 * Puts the IDs of the neighbors of a node into neighbors.
+		 *
+		 * @return the number of neighbors
+		 */
+		private int neighbors(int id) {
+			if (edges != null) {
+				if (id > edges.getNumNodes())
+					return 0;
+				int degree = edges.getDegree(id - 1);
+				if (neighbors.length < degree)
+					neighbors = new int[degree];
+				for (int k = 0; k < degree; k++)
+					neighbors[k] = edges.getNeighbor(id - 1, k) + 1;
+				return degree;
+			}
+
+			if (gridWidth > 0) {
+				int degree = 0;
+				if ((id - 1) % gridWidth != 0)
+					neighbors[degree++] = id - 1;
+				if (id % gridWidth != 0)
+					neighbors[degree++] = id + 1;
+				neighbors[degree++] = id - gridWidth;
+				neighbors[degree++] = id + gridWidth;
+				return degree;
+			}
+
+			neighbors[0] = id - 1;
+			neighbors[1] = id + 1;
+			return 2;
+		}
+	}
+
+	/**
+	 * Parses a range of the log into seconds. The first and the last second
+	 * keep their clocks since they may continue in the neighboring chunks.
+	 */
+	static class Chunk {
+		final long start;
+		final long end;
+		final List<Second> seconds = new ArrayList<Second>();
+		long lines = 0;
+		long malformed = 0;
+
+		private final Clocks dense = new Clocks();
+		private int[] ids = new int[1024];
+		private int[] clocks = new int[1024];
+
+		/* parser state */
+		private MappedByteBuffer buffer;
+		private int position;
+		private int limit;
+		/** whether the last parsed number was found */
+		private boolean valid;
+
+		Chunk(long start, long end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		void parse(FileChannel channel) throws IOException {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+			position = 0;
+			limit = buffer.limit();
+
+			Second current = null;
+
+			while (position < limit) {
+				if (buffer.get(position) == '\n') {
+					position++;
+					continue;
+				}
+
+				long second = parseNumber();
+				boolean complete = valid && second >= 0;
+				long id = parseNumber();
+				complete &= valid && id > 0 && id <= Integer.MAX_VALUE;
+				long clock = parseNumber();
+				complete &= valid;
+				long rateBits = parseNumber();
+				complete &= valid;
+				skipLine();
+				lines++;
+
+				if (!complete) {
+					malformed++;
+					continue;
+				}
+
+				if (current == null || current.second != second) {
+					if (current != null)
+						finish(current, false);
+					current = new Second(second, clock);
+					seconds.add(current);
+				}
+
+				if (current.count == ids.length) {
+					int[] larger = new int[ids.length * 2];
+					System.arraycopy(ids, 0, larger, 0, ids.length);
+					ids = larger;
+					larger = new int[clocks.length * 2];
+					System.arraycopy(clocks, 0, larger, 0, clocks.length);
+					clocks = larger;
+				}
+				ids[current.count] = (int) id;
+				clocks[current.count] = (int) clock;
+				current.add(clock, Float.intBitsToFloat((int) rateBits));
+			}
+
+			if (current != null)
+				finish(current, true);
+			buffer = null;
+		}
+
+		private void finish(Second second, boolean last) {
+			if (last || seconds.size() == 1) {
+				second.ids = new int[second.count];
+				second.clocks = new int[second.count];
+				System.arraycopy(ids, 0, second.ids, 0, second.count);
+				System.arraycopy(clocks, 0, second.clocks, 0, second.count);
+			} else {
+				second.localSkew = dense.localSkew(ids, clocks, second.count);
+			}
+		}
+
+		/**
+		 * Parses a decimal number after spaces, the number may be negative.
+		 * valid is false if there is no number before the end of the line.
+		 */
+		private long parseNumber() {
+			while (position < limit && buffer.get(position) == ' ')
+				position++;
+
+			boolean negative = false;
+			if (position < limit && buffer.get(position) == '-') {
+				negative = true;
+				position++;
+			}
+
+			long value = 0;
+			int digits = 0;
+			while (position < limit) {
+				int c = buffer.get(position) - '0';
+				if (c < 0 || c > 9)
+					break;
+				value = value * 10 + c;
+				digits++;
+				position++;
+			}
+
+			valid = digits > 0 && digits <= 18;
+			return negative ? -value : value;
+		}
+
+		private void skipLine() {
+			while (position < limit && buffer.get(position) != '\n')
+				position++;
+			position++;
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		int numThreads = Parallel.defaultThreads;
+		long threshold = 100;
+		String csvFile = null;
+		String logFile = null;
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-threads"))
+				numThreads = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-threshold"))
+				threshold = Long.parseLong(args[++i]);
+			else if (args[i].equals("-line"))
+				line = true;
+			else if (args[i].equals("-grid"))
+				gridWidth = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-edges"))
+				edges = readEdges(args[++i]);
+			else if (args[i].equals("-csv"))
+				csvFile = args[++i];
+			else
+				logFile = args[i];
+		}
+
+		if (logFile == null) {
+			System.out.println("Usage: LogAnalyzer [-threads N] [-threshold T] [-line | -grid W | -edges file] [-csv output] logFile");
+			System.exit(-1);
+		}
+
+		long begin = System.nanoTime();
+		RandomAccessFile file = new RandomAccessFile(new File(logFile), "r");
+		final FileChannel channel = file.getChannel();
+		final Chunk[] chunks = split(channel, numThreads);
+
+		Parallel.forChunks(chunks.length, numThreads, new Parallel.Body() {
+			public void run(int from, int to) {
+				try {
+					for (int i = from; i < to; i++)
+						chunks[i].parse(channel);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+
+		List<Second> seconds = merge(chunks);
+		long size = channel.size();
+		file.close();
+		double elapsed = (System.nanoTime() - begin) / 1e9;
+
+		long lines = 0;
+		long malformed = 0;
+		for (int i = 0; i < chunks.length; i++) {
+			lines += chunks[i].lines;
+			malformed += chunks[i].malformed;
+		}
+
+		System.out.println(lines + " lines, " + malformed + " malformed, " + seconds.size()
+				+ " seconds, " + String.format("%.1f MB/s", size / 1e6 / elapsed));
+
+		if (csvFile != null)
+			writeCsv(csvFile, seconds);
+		summarize(seconds, threshold);
+	}
+
+	/**
+	 * Splits the file into chunks which start after a line end.
+	 */
+	static Chunk[] split(FileChannel channel, int numThreads) throws IOException {
+		long size = channel.size();
+		int numChunks = (int) Math.max(numThreads, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+		List<Chunk> chunks = new ArrayList<Chunk>();
+		ByteBuffer scan = ByteBuffer.allocate(4096);
+
+		long start = 0;
+		for (int c = 1; c <= numChunks && start < size; c++) {
+			long end = c == numChunks ? size : Math.max(start, size * c / numChunks);
+
+			/* move the end behind the next line end */
+			while (end < size) {
+				scan.clear();
+				int n = channel.read(scan, end);
+				if (n <= 0)
+					break;
+				int k = 0;
+				while (k < n && scan.get(k) != '\n')
+					k++;
+				end += Math.min(k + 1, n);
+				if (k < n)
+					break;
+			}
+
+			if (end > start)
+				chunks.add(new Chunk(start, end));
+			start = end;
+		}
+
+		return chunks.toArray(new Chunk[chunks.size()]);
+	}
+
+	/**
+	 * Joins the seconds of the chunks, merging the seconds which are split
+	 * between neighboring chunks.
+	 */
+	static List<Second> merge(Chunk[] chunks) {
+		List<Second> seconds = new ArrayList<Second>();
+		Clocks dense = new Clocks();
+		Second pending = null;
+
+		for (int c = 0; c < chunks.length; c++) {
+			for (Second second : chunks[c].seconds) {
+				if (second.ids != null) {
+					if (pending != null && pending.second == second.second) {
+						pending.merge(second);
+						continue;
+					}
+					if (pending != null)
+						pending.localSkew = dense.localSkew(pending.ids, pending.clocks, pending.count);
+					pending = second;
+					seconds.add(second);
+				} else {
+					if (pending != null)
+						pending.localSkew = dense.localSkew(pending.ids, pending.clocks, pending.count);
+					pending = null;
+					seconds.add(second);
+				}
+			}
+		}
+
+		if (pending != null)
+			pending.localSkew = dense.localSkew(pending.ids, pending.clocks, pending.count);
+
+		for (Second second : seconds) {
+			second.ids = null;
+			second.clocks = null;
+		}
+
+		return seconds;
+	}
+
+	static AdjacencyGraph readEdges(String fileName) throws IOException {
+		BufferedReader reader = new BufferedReader(new FileReader(fileName));
+		List<int[]> pairs = new ArrayList<int[]>();
+		int numNodes = 0;
+
+		String text;
+		while ((text = reader.readLine()) != null) {
+			String[] fields = text.trim().split("\\s+");
+			if (fields.length < 2 || fields[0].startsWith("#"))
+				continue;
+			int a = Integer.parseInt(fields[0]);
+			int b = Integer.parseInt(fields[1]);
+			pairs.add(new int[] { a - 1, b - 1 });
+			numNodes = Math.max(numNodes, Math.max(a, b));
+		}
+		reader.close();
+
+		int[] offsets = new int[numNodes + 1];
+		for (int[] pair : pairs)
+			offsets[pair[0] + 1]++;
+		for (int i = 0; i < numNodes; i++)
+			offsets[i + 1] += offsets[i];
+
+		int[] targets = new int[pairs.size()];
+		int[] next = new int[numNodes];
+		for (int[] pair : pairs)
+			targets[offsets[pair[0]] + next[pair[0]]++] = pair[1];
+
+		return new AdjacencyGraph(offsets, targets).undirected();
+	}
+
+	static void writeCsv(String csvFile, List<Second> seconds) {
+		Logger logger = new Logger(csvFile, false, 0);
+		StringBuilder text = new StringBuilder();
+
+		logger.log("second,nodes,global_skew,local_skew,rate_mean,rate_min,rate_max");
+		for (Second second : seconds) {
+			text.setLength(0);
+			text.append(second.second).append(',');
+			text.append(second.count).append(',');
+			text.append(second.getGlobalSkew()).append(',');
+			if (second.localSkew >= 0)
+				text.append(second.localSkew);
+			text.append(',').append(second.rateSum / second.count);
+			text.append(',').append(second.rateMin);
+			text.append(',').append(second.rateMax);
+			logger.log(text);
+		}
+
+		logger.close();
+	}
+
+	static void summarize(List<Second> seconds, long threshold) {
+		int converged = seconds.size();
+		while (converged > 0 && seconds.get(converged - 1).getGlobalSkew() <= threshold)
+			converged--;
+
+		if (converged == seconds.size()) {
+			System.out.println("global skew does not converge to " + threshold);
+			converged = 0;
+		} else {
+			System.out.println("converged to " + threshold + " at second "
+					+ seconds.get(converged).second);
+		}
+
+		OnlineStatistics global = new OnlineStatistics();
+		OnlineStatistics local = new OnlineStatistics();
+		OnlineStatistics rates = new OnlineStatistics();
+		P2Quantile globalQuantile = new P2Quantile(0.99);
+		P2Quantile localQuantile = new P2Quantile(0.99);
+
+		for (int i = converged; i < seconds.size(); i++) {
+			Second second = seconds.get(i);
+			global.add(second.getGlobalSkew());
+			globalQuantile.add(second.getGlobalSkew());
+			if (second.localSkew >= 0) {
+				local.add(second.localSkew);
+				localQuantile.add(second.localSkew);
+			}
+			rates.add(second.rateSum / second.count);
+		}
+
+		System.out.println("global skew " + global + " p99 " + globalQuantile.getQuantile());
+		if (local.getCount() > 0)
+			System.out.println("local skew " + local + " p99 " + localQuantile.getQuantile());
+		System.out.println("mean rate " + rates);
+	}
+}
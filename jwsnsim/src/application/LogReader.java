@@ -0,0 +1,239 @@
+package application;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the lines of a compressed {@link Logger} log. The index of the log
+ * is used to seek to the block which was being logged at a simulation
+ * time, only the blocks from there on are decompressed.
+ *
+ * The main method prints the lines logged from fromSecond to toSecond. The
+ * blocks are selected by the index, and lines which start with a second,
+ * as the lines of the synchronization nodes do, are also filtered on it.
+ * Other lines are printed if their block was logged within the seconds.
+ *
+ * Usage: LogReader logFile [fromSecond [toSecond]]
+ */
+public class LogReader {
+
+	private RandomAccessFile file;
+	private FileChannel channel;
+
+	/* compressed offset and simulation time of the first line of every block */
+	private long[] offsets;
+	private long[] times;
+
+	private final Inflater inflater = new Inflater(true);
+	private ByteBuffer input = ByteBuffer.allocate(1 << 16);
+	private byte[] data = new byte[1 << 20];
+	private int length = 0;
+	private int position = 0;
+	private int block = -1;
+
+	public LogReader(String logFile) throws IOException {
+		readIndex(logFile + ".idx");
+		file = new RandomAccessFile(new File(logFile), "r");
+		channel = file.getChannel();
+	}
+
+	private void readIndex(String indexFile) throws IOException {
+		RandomAccessFile index = new RandomAccessFile(new File(indexFile), "r");
+
+		try {
+			long size = index.length();
+			if (size < 4 || index.readInt() != Logger.INDEX_MAGIC
+					|| (size - 4) % Logger.INDEX_ENTRY_SIZE != 0)
+				throw new IOException(indexFile + " is not a log index");
+
+			int numBlocks = (int) ((size - 4) / Logger.INDEX_ENTRY_SIZE);
+			byte[] entries = new byte[numBlocks * Logger.INDEX_ENTRY_SIZE];
+			index.readFully(entries);
+
+			ByteBuffer buffer = ByteBuffer.wrap(entries);
+			offsets = new long[numBlocks];
+			times = new long[numBlocks];
+			for (int i = 0; i < numBlocks; i++) {
+				offsets[i] = buffer.getLong();
+				buffer.getLong();
+				times[i] = buffer.getLong();
+			}
+		} finally {
+			index.close();
+		}
+	}
+
+	public int getNumBlocks() {
+		return offsets.length;
+	}
+
+	/**
+	 * @return the simulation time at which the first line of the block was
+	 *         logged
+	 */
+	public long getBlockTime(int block) {
+		return times[block];
+	}
+
+	/**
+	 * Moves to the last block whose first line was logged before the given
+	 * simulation time, or to the first block. The following lines include
+	 * all lines logged from that time on, also those logged at that time
+	 * in a block which started earlier.
+	 */
+	public void seek(long time) throws IOException {
+		int low = 0;
+		int high = offsets.length - 1;
+
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (times[middle] < time)
+				low = middle;
+			else
+				high = middle - 1;
+		}
+
+		block = low - 1;
+		length = 0;
+		position = 0;
+	}
+
+	/**
+	 * @return the next line or null at the end of the log
+	 */
+	public String readLine() throws IOException {
+		StringBuilder line = null;
+
+		while (true) {
+			if (position == length) {
+				if (!inflate(block + 1))
+					return line == null ? null : line.toString();
+			}
+
+			int end = position;
+			while (end < length && data[end] != '\n')
+				end++;
+
+			int stop = end > position && data[end - 1] == '\r' && end < length ? end - 1 : end;
+			String part = new String(data, position, stop - position);
+
+			if (end < length) {
+				position = end + 1;
+				return line == null ? part : line.append(part).toString();
+			}
+
+			if (line == null)
+				line = new StringBuilder();
+			line.append(part);
+			position = length;
+		}
+	}
+
+	/**
+	 * Decompresses the block into data.
+	 *
+	 * @return false if there is no such block
+	 */
+	private boolean inflate(int index) throws IOException {
+		if (index >= offsets.length)
+			return false;
+
+		long start = offsets[index] + Logger.GZIP_HEADER_SIZE;
+		long end = (index + 1 < offsets.length ? offsets[index + 1] : channel.size())
+				- Logger.GZIP_TRAILER_SIZE;
+		int size = (int) (end - start);
+
+		if (input.capacity() < size)
+			input = ByteBuffer.allocate(size);
+		input.clear();
+		input.limit(size);
+		while (input.hasRemaining()) {
+			if (channel.read(input, start + input.position()) < 0)
+				throw new IOException("the log is truncated");
+		}
+
+		inflater.reset();
+		inflater.setInput(input.array(), 0, size);
+		length = 0;
+		try {
+			while (!inflater.finished()) {
+				if (length == data.length) {
+					byte[] larger = new byte[data.length * 2];
+					System.arraycopy(data, 0, larger, 0, length);
+					data = larger;
+				}
+				int n = inflater.inflate(data, length, data.length - length);
+				if (n == 0 && inflater.needsInput())
+					throw new IOException("block " + index + " of the log is truncated");
+				length += n;
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("block " + index + " of the log is corrupt");
+		}
+
+		block = index;
+		position = 0;
+		return true;
+	}
+
+	/**
+	 * @return the second at the start of a line in the layout of
+	 *         {@link ClockSnapshot#appendLine}, or -1 if the line does not
+	 *         start with a number
+	 */
+	public static long secondOf(String line) {
+		long second = 0;
+		int i = 0;
+
+		while (i < line.length() && i < 18 && line.charAt(i) >= '0' && line.charAt(i) <= '9')
+			second = second * 10 + (line.charAt(i++) - '0');
+
+		if (i == 0 || (i < line.length() && line.charAt(i) != ' '))
+			return -1;
+
+		return second;
+	}
+
+	public void close() throws IOException {
+		inflater.end();
+		channel.close();
+		file.close();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: LogReader logFile [fromSecond [toSecond]]");
+			System.exit(-1);
+		}
+
+		LogReader reader = new LogReader(args[0]);
+		long fromSecond = 0;
+		long toSecond = Long.MAX_VALUE / 1024 / 1024 - 1;
+
+		if (args.length > 1) {
+			fromSecond = Long.parseLong(args[1]);
+			reader.seek(fromSecond * 1024 * 1024);
+		}
+		if (args.length > 2)
+			toSecond = Long.parseLong(args[2]);
+
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (reader.times[reader.block] >= (toSecond + 1) * 1024 * 1024)
+				break;
+
+			long second = secondOf(line);
+			if (second > toSecond)
+				break;
+			if (second < 0 || second >= fromSecond)
+				System.out.println(line);
+		}
+
+		reader.close();
+	}
+}
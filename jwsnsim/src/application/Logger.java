@@ -1,43 +1,276 @@
 package application;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 
+import sim.configuration.LogConfiguration;
+import core.Simulator;
+
+/**
+ * Writes log lines to a file from a background thread. Lines are encoded
+ * into a ring of preallocated blocks, a full block is handed to the writer
+ * thread which writes it with a single channel write. The simulation thread
+ * only waits when all blocks are pending, which bounds the memory to
+ * BLOCK_SIZE * NUM_BLOCKS bytes. The file is complete only after close().
+ *
+ * Compressed logs are written by the writer thread as one gzip member per
+ * block, so the file can be read by any gzip tool. Blocks end at line
+ * boundaries unless a line is longer than a block. The index file
+ * logFile.idx holds for every block its offsets in the compressed and the
+ * uncompressed log and the simulation time at which its first line was
+ * logged, see {@link LogReader}.
+ */
 public class Logger{
 
-	BufferedWriter out = null;
+	private static final int BLOCK_SIZE = 1 << 20;
+	private static final int NUM_BLOCKS = 8;
+	private static final byte[] NEW_LINE = System.getProperty("line.separator").getBytes();
+
+	/** "JWSI" */
+	static final int INDEX_MAGIC = 0x4A575349;
+	static final int INDEX_ENTRY_SIZE = 24;
+	static final int GZIP_HEADER_SIZE = 10;
+	static final int GZIP_TRAILER_SIZE = 8;
+	private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	FileChannel out = null;
 	String logFile = null;
-	
-	public Logger(String logFile) {					
-		createLogFile(logFile);
+
+	private final byte[][] blocks = new byte[NUM_BLOCKS][BLOCK_SIZE];
+	private final int[] lengths = new int[NUM_BLOCKS];
+	/** simulation time of the first line of every block */
+	private final long[] times = new long[NUM_BLOCKS];
+
+	/** block being filled by the simulation thread */
+	private byte[] block = blocks[0];
+	private int position = 0;
+
+	/** number of blocks handed to and written by the writer thread */
+	private volatile long published = 0;
+	private volatile long written = 0;
+	private volatile boolean closed = false;
+
+	private Thread writer = null;
+	private volatile Thread waiting = null;
+
+	/* used only by the writer thread of compressed logs */
+	private Deflater deflater = null;
+	private DataOutputStream index = null;
+	private byte[] compressed = null;
+	private final CRC32 crc = new CRC32();
+	private long compressedOffset = 0;
+	private long uncompressedOffset = 0;
+
+	/**
+	 * Creates a log which is compressed as configured in
+	 * {@link LogConfiguration}.
+	 */
+	public Logger(String logFile) {
+		this(logFile, LogConfiguration.compress, LogConfiguration.compressionLevel);
+	}
+
+	public Logger(String logFile, boolean compress, int level) {
+		this.logFile = logFile;
+		createLogFile(logFile, compress, level);
 	}
-		
-	private void createLogFile(String logFile){		
+
+	private void createLogFile(String logFile, boolean compress, int level){
 		try {
-			out = new BufferedWriter(new FileWriter(new File(logFile)));
+			out = new FileOutputStream(logFile).getChannel();
+			if (compress) {
+				deflater = new Deflater(level, true);
+				compressed = new byte[BLOCK_SIZE + BLOCK_SIZE / 8];
+				index = new DataOutputStream(new BufferedOutputStream(
+						new FileOutputStream(logFile + ".idx")));
+				index.writeInt(INDEX_MAGIC);
+			}
 		} catch (IOException e1) {
 			e1.printStackTrace();
+			out = null;
+			return;
+		}
+
+		writer = new Thread(new Runnable() {
+			public void run() {
+				write();
+			}
+		}, "Logger " + logFile);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	public void log(CharSequence data){
+		if (out == null || closed)
+			return;
+
+		int length = data.length();
+		byte[] bytes = null;
+		for (int i = 0; i < length; i++) {
+			if (data.charAt(i) >= 0x80) {
+				bytes = data.toString().getBytes();
+				break;
+			}
+		}
+
+		int size = (bytes == null ? length : bytes.length) + NEW_LINE.length;
+		if (position == 0)
+			times[(int) (published % NUM_BLOCKS)] = Simulator.getInstance().getTime().getTimeHigh();
+		else if (size > BLOCK_SIZE - position)
+			publish();
+
+		if (bytes == null) {
+			/* ASCII lines are copied char by char */
+			for (int i = 0; i < length; i++) {
+				if (position == BLOCK_SIZE)
+					publish();
+				block[position++] = (byte) data.charAt(i);
+			}
+		} else {
+			append(bytes);
 		}
+		append(NEW_LINE);
 	}
-	
-	public void log(String data){				
-		try {
-			out.append(data);
-			out.newLine();
-			out.flush();
-		} catch (IOException e) {
-			e.printStackTrace();
+
+	private void append(byte[] bytes) {
+		int offset = 0;
+
+		while (offset < bytes.length) {
+			if (position == BLOCK_SIZE)
+				publish();
+			int n = Math.min(bytes.length - offset, BLOCK_SIZE - position);
+			System.arraycopy(bytes, offset, block, position, n);
+			position += n;
+			offset += n;
+		}
+	}
+
+	/**
+	 * Hands the current block to the writer thread and waits for a free one.
+	 */
+	private void publish() {
+		long next = published;
+		lengths[(int) (next % NUM_BLOCKS)] = position;
+		published = next + 1;
+		LockSupport.unpark(writer);
+
+		while (next + 1 - written >= NUM_BLOCKS) {
+			waiting = Thread.currentThread();
+			if (next + 1 - written >= NUM_BLOCKS)
+				LockSupport.park(this);
+			waiting = null;
+		}
+
+		block = blocks[(int) ((next + 1) % NUM_BLOCKS)];
+		position = 0;
+		times[(int) ((next + 1) % NUM_BLOCKS)] = Simulator.getInstance().getTime().getTimeHigh();
+	}
+
+	private void write() {
+		boolean failed = false;
+
+		while (true) {
+			long next = written;
+
+			if (next == published) {
+				if (closed && next == published)
+					break;
+				LockSupport.park(this);
+				continue;
+			}
+
+			int index = (int) (next % NUM_BLOCKS);
+			if (!failed) {
+				try {
+					if (deflater == null)
+						write(ByteBuffer.wrap(blocks[index], 0, lengths[index]));
+					else
+						compress(blocks[index], lengths[index], times[index]);
+				} catch (IOException e) {
+					/* the remaining blocks are dropped so that the simulation never blocks */
+					e.printStackTrace();
+					failed = true;
+				}
+			}
+
+			written = next + 1;
+			Thread thread = waiting;
+			if (thread != null)
+				LockSupport.unpark(thread);
+		}
+	}
+
+	private void write(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			out.write(buffer);
+	}
+
+	/**
+	 * Writes the block as a gzip member and adds it to the index.
+	 */
+	private void compress(byte[] data, int length, long time) throws IOException {
+		deflater.reset();
+		deflater.setInput(data, 0, length);
+		deflater.finish();
+
+		int size = 0;
+		while (!deflater.finished()) {
+			if (size == compressed.length) {
+				byte[] larger = new byte[compressed.length * 2];
+				System.arraycopy(compressed, 0, larger, 0, size);
+				compressed = larger;
+			}
+			size += deflater.deflate(compressed, size, compressed.length - size);
 		}
+
+		crc.reset();
+		crc.update(data, 0, length);
+		ByteBuffer trailer = ByteBuffer.allocate(GZIP_TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		trailer.putInt((int) crc.getValue());
+		trailer.putInt(length);
+		trailer.flip();
+
+		write(ByteBuffer.wrap(GZIP_HEADER));
+		write(ByteBuffer.wrap(compressed, 0, size));
+		write(trailer);
+
+		index.writeLong(compressedOffset);
+		index.writeLong(uncompressedOffset);
+		index.writeLong(time);
+		compressedOffset += GZIP_HEADER_SIZE + size + GZIP_TRAILER_SIZE;
+		uncompressedOffset += length;
 	}
-		
+
 	public void close(){
+		if (out == null || closed)
+			return;
+
+		if (position > 0)
+			publish();
+		closed = true;
+		LockSupport.unpark(writer);
+
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
 		try {
-			out.flush();
+			if (index != null)
+				index.close();
+			if (deflater != null)
+				deflater.end();
 			out.close();
 		} catch (IOException e) {
 //			e.printStackTrace();
 		}
-	}	
+	}
 }
@@ -0,0 +1,59 @@
+package application;
+
+/**
+ * Decides when a {@link SynchronizationSimulation} samples the nodes and
+ * which nodes are logged at a sampling point. The skew metrics are computed
+ * from all nodes at every sampling point, a policy only leaves out node
+ * records of the log and the trace, which keep their layout.
+ *
+ * This policy samples every period ticks and logs every interval-th node,
+ * the subclasses select the nodes or the period by other rules.
+ */
+public class SamplingPolicy {
+
+	public static final int PERIOD = 20000000;
+
+	protected int period;
+	protected int interval;
+
+	/**
+	 * Logs every node every PERIOD ticks.
+	 */
+	public SamplingPolicy() {
+		this(PERIOD, 1);
+	}
+
+	/**
+	 * @param interval every how many nodes a node is logged, 0 logs no nodes
+	 */
+	public SamplingPolicy(int period, int interval) {
+		this.period = period;
+		this.interval = interval;
+	}
+
+	/**
+	 * @return the number of ticks to the first sampling point
+	 */
+	public int getInitialPeriod() {
+		return period;
+	}
+
+	/**
+	 * Called after the skews of a sampling point are added to the metrics.
+	 * 
+	 * @return the number of ticks to the next sampling point, the simulation
+	 *         adds a random jitter of a few seconds
+	 */
+	public int getPeriod(SkewMetrics metrics) {
+		return period;
+	}
+
+	/**
+	 * @param node the index of the node
+	 * @return whether the node is logged at this sampling point, the clock
+	 *         of traced nodes is in the snapshot
+	 */
+	public boolean isLogged(ClockSnapshot snapshot, int node) {
+		return interval > 0 && node % interval == 0;
+	}
+}
@@ -0,0 +1,145 @@
+package application;
+
+import nodes.AdjacencyGraph;
+import sim.statistics.OnlineStatistics;
+import sim.statistics.P2Quantile;
+import application.trace.TracedNode;
+
+/**
+ * Computes the global skew, the largest difference of the logical clocks
+ * of all nodes, and the local skew, the largest difference of the logical
+ * clocks of neighbors, at every sampling point of a synchronization
+ * simulation. Neighbors are taken from the graph of the radio model, which
+ * holds the channel links of the nodes. Only the nodes which implement
+ * {@link TracedNode} are considered.
+ *
+ * The skews of all samples are accumulated into their mean, variance,
+ * maximum and the QUANTILES, without storing them.
+ */
+public class SkewMetrics {
+
+	public static final double[] QUANTILES = { 0.5, 0.95, 0.99 };
+
+	private long globalSkew = 0;
+	private long localSkew = 0;
+
+	private final OnlineStatistics global = new OnlineStatistics();
+	private final OnlineStatistics local = new OnlineStatistics();
+	private final P2Quantile[] globalQuantiles = new P2Quantile[QUANTILES.length];
+	private final P2Quantile[] localQuantiles = new P2Quantile[QUANTILES.length];
+
+	public SkewMetrics() {
+		for (int i = 0; i < QUANTILES.length; i++) {
+			globalQuantiles[i] = new P2Quantile(QUANTILES[i]);
+			localQuantiles[i] = new P2Quantile(QUANTILES[i]);
+		}
+	}
+
+	/**
+	 * Adds the skews of the logical clocks of a sample.
+	 *
+	 * @param graph the links between the nodes, indexed like the nodes
+	 * @return false if none of the nodes is traced
+	 */
+	public boolean sample(ClockSnapshot snapshot, AdjacencyGraph graph) {
+		int numNodes = snapshot.getNumNodes();
+		int reference = -1;
+		int min = 0;
+		int max = 0;
+
+		for (int i = 0; i < numNodes; i++) {
+			if (!snapshot.isTraced(i))
+				continue;
+
+			if (reference == -1)
+				reference = i;
+
+			/* differences to a reference node are correct across wraparounds */
+			int difference = snapshot.getClock(i) - snapshot.getClock(reference);
+			if (difference < min)
+				min = difference;
+			if (difference > max)
+				max = difference;
+		}
+
+		if (reference == -1)
+			return false;
+
+		globalSkew = (long) max - min;
+		localSkew = 0;
+
+		for (int i = 0; graph != null && i < numNodes; i++) {
+			if (!snapshot.isTraced(i))
+				continue;
+
+			int clock = snapshot.getClock(i);
+			int degree = graph.getDegree(i);
+			for (int k = 0; k < degree; k++) {
+				int j = graph.getNeighbor(i, k);
+				if (!snapshot.isTraced(j))
+					continue;
+
+				long difference = Math.abs((long) (clock - snapshot.getClock(j)));
+				if (difference > localSkew)
+					localSkew = difference;
+			}
+		}
+
+		global.add(globalSkew);
+		local.add(localSkew);
+		for (int i = 0; i < QUANTILES.length; i++) {
+			globalQuantiles[i].add(globalSkew);
+			localQuantiles[i].add(localSkew);
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the global skew of the last sample in clock ticks
+	 */
+	public long getGlobalSkew() {
+		return globalSkew;
+	}
+
+	/**
+	 * @return the local skew of the last sample in clock ticks
+	 */
+	public long getLocalSkew() {
+		return localSkew;
+	}
+
+	public OnlineStatistics getGlobal() {
+		return global;
+	}
+
+	public OnlineStatistics getLocal() {
+		return local;
+	}
+
+	/**
+	 * @return the estimated quantile QUANTILES[index] of the global skew
+	 */
+	public double getGlobalQuantile(int index) {
+		return globalQuantiles[index].getQuantile();
+	}
+
+	/**
+	 * @return the estimated quantile QUANTILES[index] of the local skew
+	 */
+	public double getLocalQuantile(int index) {
+		return localQuantiles[index].getQuantile();
+	}
+
+	public String toString() {
+		return "global skew " + summary(global, globalQuantiles)
+				+ "\nlocal skew " + summary(local, localQuantiles);
+	}
+
+	private static String summary(OnlineStatistics statistics, P2Quantile[] quantiles) {
+		String s = "mean " + statistics.getMean() + " sd " + statistics.getStandardDeviation();
+		for (int i = 0; i < quantiles.length; i++)
+			s += " p" + Math.round(quantiles[i].getP() * 100) + " " + quantiles[i].getQuantile();
+		return s + " max " + statistics.getMax() + " samples " + statistics.getCount();
+	}
+}
@@ -0,0 +1,33 @@
+package application;
+
+import nodes.NodeFactory;
+
+/**
+ * Logs only the nodes with the given IDs.
+ */
+public class SubsetSamplingPolicy extends SamplingPolicy {
+
+	private boolean[] selected;
+
+	public SubsetSamplingPolicy(int[] ids) {
+		this(PERIOD, ids);
+	}
+
+	public SubsetSamplingPolicy(int period, int[] ids) {
+		super(period, 1);
+
+		int maxID = 0;
+		for (int i = 0; i < ids.length; i++)
+			maxID = Math.max(maxID, ids[i]);
+
+		selected = new boolean[maxID + 1];
+		for (int i = 0; i < ids.length; i++)
+			selected[ids[i]] = true;
+	}
+
+	@Override
+	public boolean isLogged(ClockSnapshot snapshot, int node) {
+		int id = NodeFactory.nodes[node].getID();
+		return id < selected.length && selected[id];
+	}
+}
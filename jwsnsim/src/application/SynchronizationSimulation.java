@@ -1,52 +1,189 @@
 package application;
 
+import java.io.IOException;
+import java.util.Random;
+
+import application.trace.TraceWriter;
+import application.trace.TracedNode;
 import nodes.NodeFactory;
 import core.SimulationEvent;
 import core.SimulationEventObserver;
 import core.Simulation;
 import core.Simulator;
-import sim.statistics.Distribution;
+import sim.configuration.ConvergenceConfiguration;
+import sim.configuration.LogConfiguration;
+import sim.statistics.MacStatistics;
+import sim.statistics.RadioStatistics;
+import sim.statistics.RandomStreams;
 
 public class SynchronizationSimulation extends Simulation implements SimulationEventObserver {
 	
-	private int PERIOD = 20000000;
+	protected SamplingPolicy policy;
 	protected Logger logger;
+	protected TraceWriter trace;
+	protected ClockSnapshot snapshot = new ClockSnapshot();
+	protected SkewMetrics metrics = new SkewMetrics();
+	protected Logger skewLogger;
+	protected ConvergenceMonitor monitor;
 	SimulationEvent event = new SimulationEvent(this);
+	Random random = RandomStreams.create(RandomStreams.SIMULATION, RandomStreams.APP);
+	private StringBuilder line = new StringBuilder();
+	private boolean untracedWarned = false;
 	
 	public SynchronizationSimulation(String logFile, int durationTime){
+		this(logFile, null, durationTime);
+	}
+	
+	public SynchronizationSimulation(String logFile, String traceFile, int durationTime){
+		this(logFile, traceFile, null, durationTime);
+	}
+	
+	/**
+	 * Logs the nodes as text lines to logFile and the nodes which implement
+	 * {@link TracedNode} to the binary trace traceFile, either file can be
+	 * null. Without a policy every LogConfiguration.nodeInterval-th node is
+	 * logged every 20 seconds.
+	 */
+	public SynchronizationSimulation(String logFile, String traceFile, SamplingPolicy policy, int durationTime){
 		super(durationTime);
 		
-		logger = new Logger(logFile);
+		if (policy == null)
+			policy = new SamplingPolicy(SamplingPolicy.PERIOD, LogConfiguration.nodeInterval);
+		this.policy = policy;
 		
-		for(int i=0;i<NodeFactory.numNodes;i++){
+		if (logFile != null)
+			logger = new Logger(logFile);
+		if (LogConfiguration.skewFile != null)
+			skewLogger = new Logger(LogConfiguration.skewFile);
+		if (ConvergenceConfiguration.skewBound >= 0)
+			monitor = new ConvergenceMonitor(ConvergenceConfiguration.skewBound, ConvergenceConfiguration.window);
+		if (traceFile != null) {
 			try {
-				NodeFactory.nodes[i].on();
-			} catch (Exception e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
+				trace = createTrace(traceFile);
+			} catch (IOException e) {
+				System.out.println("Cannot create the trace " + traceFile + ": " + e.getMessage());
+				System.exit(-1);
 			}
 		}
+		
+		NodeFactory.startNodes();
 
-		event.register((int) (PERIOD + ((Distribution.getRandom().nextInt() % 4) + 1)*1000000));
+		event.register(delay(policy.getInitialPeriod()));
 		Simulator.getInstance().startSimulation(this);
 	}
 	
 	@Override
 	public void exit() {
-		logger.close();	
+		if (logger != null)
+			logger.close();
+		if (skewLogger != null)
+			skewLogger.close();
+		if (trace != null) {
+			try {
+				trace.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		System.out.println("Radio: " + RadioStatistics.collect(NodeFactory.nodes));
+		System.out.println("MAC: " + MacStatistics.collect(NodeFactory.nodes));
+		if (metrics.getGlobal().getCount() > 0)
+			System.out.println(metrics);
+		if (monitor != null)
+			System.out.println("Convergence: " + monitor);
 		System.out.println("Simulation finished!");
 	}
 
+	/**
+	 * Creates the trace, simulations with protocol specific columns
+	 * override it together with {@link #trace(int)}.
+	 */
+	protected TraceWriter createTrace(String traceFile) throws IOException {
+		return new TraceWriter(traceFile);
+	}
+	
+	/**
+	 * Writes the record of a node which implements {@link TracedNode} from
+	 * the current snapshot.
+	 * 
+	 * @param node the index of the node
+	 */
+	protected void trace(int node) throws IOException {
+		trace.record(snapshot.getTime(), snapshot.getID(node), snapshot.getClock(node),
+				snapshot.getRate(node));
+	}
+
+	/**
+	 * The clocks of the traced nodes are read in parallel, then the logs,
+	 * the trace and the skew metrics are written from the snapshot for the
+	 * nodes selected by the policy. The other nodes are still logged with
+	 * their toString().
+	 */
 	private void log() {
+		snapshot.take(NodeFactory.nodes);
+		
 		for(int i=0;i<NodeFactory.nodes.length;i++){
-			logger.log(NodeFactory.nodes[i].toString());
+			if (!policy.isLogged(snapshot, i))
+				continue;
+			
+			if (!snapshot.isTraced(i)) {
+				if (logger != null)
+					logger.log(NodeFactory.nodes[i].toString());
+				continue;
+			}
+			
+			if (logger != null) {
+				line.setLength(0);
+				snapshot.appendLine(i, line);
+				logger.log(line);
+			}
+			if (trace != null) {
+				try {
+					trace(i);
+				} catch (IOException e) {
+					System.out.println("Cannot write the trace: " + e.getMessage());
+					System.exit(-1);
+				}
+			}
 		}
+		
+		if (metrics.sample(snapshot, NodeFactory.getRadioModel().getGraph())) {
+			if (skewLogger != null) {
+				RadioStatistics radio = RadioStatistics.collect(NodeFactory.nodes);
+				skewLogger.log(Simulator.getInstance().getSecond() + " " + metrics.getGlobalSkew()
+						+ " " + metrics.getLocalSkew() + " " + radio.received + " " + radio.corrupted
+						+ " " + radio.lostToNoise + " " + radio.droppedWhileTransmitting + " " + radio.ccaBusy);
+			}
+			if (monitor != null && monitor.sample(Simulator.getInstance().getSecond(), metrics.getGlobalSkew())
+					&& ConvergenceConfiguration.stopOnConvergence)
+				finish();
+		} else if (!untracedWarned) {
+			System.out.println("Warning: no node implements TracedNode, the skew metrics"
+					+ (monitor != null ? " and the convergence of the run" : "") + " are not computed");
+			untracedWarned = true;
+		}
+	}
+	
+	/**
+	 * @return the second from which on the global skew stayed under the
+	 *         bound of {@link ConvergenceConfiguration}, -1 if the network
+	 *         did not converge or the monitor is disabled
+	 */
+	public long getConvergenceSecond() {
+		return monitor == null ? -1 : monitor.getConvergenceSecond();
+	}
+
+	/**
+	 * @return the period plus a jitter of 1 to 4 million ticks, the jitter is
+	 *         positive so that short periods never schedule into the past
+	 */
+	private int delay(int period) {
+		return period + (random.nextInt(4) + 1) * 1000000;
 	}
 
 	@Override
 	public void signal(SimulationEvent event) {
 		log();
-		event.register((int) (PERIOD + ((Distribution.getRandom().nextInt() % 4) + 1)*1000000));
-		
+		event.register(delay(policy.getPeriod(metrics)));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package application;
+
+/**
+ * Logs a traced node only when its clock or its rate has changed by more
+ * than a threshold since it was last logged. The change of the clock is
+ * measured against the simulation time, i.e. a clock which progresses with
+ * the simulation time is not logged again. Nodes which are not traced are
+ * logged at every sampling point.
+ */
+public class ThresholdSamplingPolicy extends SamplingPolicy {
+
+	private final long clockThreshold;
+	private final float rateThreshold;
+
+	/* offset of the clock to the simulation time and rate when last logged */
+	private int[] offsets = new int[0];
+	private float[] rates = new float[0];
+	private boolean[] logged = new boolean[0];
+
+	public ThresholdSamplingPolicy(long clockThreshold, float rateThreshold) {
+		this(PERIOD, clockThreshold, rateThreshold);
+	}
+
+	public ThresholdSamplingPolicy(int period, long clockThreshold, float rateThreshold) {
+		super(period, 1);
+		this.clockThreshold = clockThreshold;
+		this.rateThreshold = rateThreshold;
+	}
+
+	@Override
+	public boolean isLogged(ClockSnapshot snapshot, int node) {
+		if (!snapshot.isTraced(node))
+			return true;
+
+		if (logged.length < snapshot.getNumNodes()) {
+			int[] largerOffsets = new int[snapshot.getNumNodes()];
+			float[] largerRates = new float[snapshot.getNumNodes()];
+			boolean[] largerLogged = new boolean[snapshot.getNumNodes()];
+			System.arraycopy(offsets, 0, largerOffsets, 0, offsets.length);
+			System.arraycopy(rates, 0, largerRates, 0, rates.length);
+			System.arraycopy(logged, 0, largerLogged, 0, logged.length);
+			offsets = largerOffsets;
+			rates = largerRates;
+			logged = largerLogged;
+		}
+
+		/* 32 bit differences, like the clocks */
+		int offset = snapshot.getClock(node) - (int) snapshot.getTime();
+		float rate = snapshot.getRate(node);
+
+		if (logged[node] && Math.abs((long) (offset - offsets[node])) <= clockThreshold
+				&& Math.abs(rate - rates[node]) <= rateThreshold)
+			return false;
+
+		offsets[node] = offset;
+		rates[node] = rate;
+		logged[node] = true;
+		return true;
+	}
+}
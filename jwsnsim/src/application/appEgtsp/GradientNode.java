@@ -12,9 +12,10 @@ import hardware.transceiver.Transceiver;
 import application.regression.LeastSquares;
 import sim.clock.ConstantDriftClock;
 import sim.clock.DynamicDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import application.trace.TracedNode;
 
-public class GradientNode extends Node implements TimerHandler {
+public class GradientNode extends Node implements TimerHandler, TracedNode {
 
 	private static final int MAX_NEIGHBORS = 10;
 	
@@ -48,7 +49,7 @@ public class GradientNode extends Node implements TimerHandler {
 		}
 		
 		/* to start clock with a random value */
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 
 	}
 
@@ -252,13 +253,21 @@ public class GradientNode extends Node implements TimerHandler {
 	@Override
 	public void on() throws Exception {
 		super.on();
-		timer0.startPeriodic(BEACON_RATE+((Distribution.getRandom().nextInt() % 100) + 1)*10000);
+		timer0.startPeriodic(BEACON_RATE+((getRandom(RandomStreams.APP).nextInt() % 100) + 1)*10000);
 	}
 
 	public Register32 local2Global() {		
 		return logicalClock.getValue(CLOCK.getValue());
 	}
 
+	public int getLogicalClock() {
+		return logicalClock.getValue(CLOCK.getValue()).toInteger();
+	}
+
+	public float getRate() {
+		return logicalClock.getRate();
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
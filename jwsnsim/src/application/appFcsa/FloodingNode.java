@@ -11,10 +11,11 @@ import hardware.transceiver.Packet;
 import hardware.transceiver.Transceiver;
 import application.appSelf.ClockSpeedAdapter;
 import application.regression.LeastSquares;
+import application.trace.TracedNode;
 import sim.clock.ConstantDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
 
-public class FloodingNode extends Node implements TimerHandler {
+public class FloodingNode extends Node implements TimerHandler, TracedNode {
 
 	private static final int MAX_NEIGHBORS = 8;
 	
@@ -223,13 +224,21 @@ public class FloodingNode extends Node implements TimerHandler {
 	@Override
 	public void on() throws Exception {
 		super.on();
-		timer0.startPeriodic(BEACON_RATE+((Distribution.getRandom().nextInt() % 100) + 1)*10000);
+		timer0.startPeriodic(BEACON_RATE+((getRandom(RandomStreams.APP).nextInt() % 100) + 1)*10000);
 	}
 
 	public Register32 local2Global() {
 		return logicalClock.getValue(CLOCK.getValue());
 	}
 
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return (1.0f+logicalClock.rate)*(float)(1.0f+CLOCK.getDrift());
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
@@ -11,9 +11,10 @@ import hardware.transceiver.Packet;
 import hardware.transceiver.Transceiver;
 import application.regression.LeastSquares;
 import sim.clock.ConstantDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import application.trace.TracedNode;
 
-public class FloodingNode extends Node implements TimerHandler {
+public class FloodingNode extends Node implements TimerHandler, TracedNode {
 
 	private static final int MAX_NEIGHBORS = 8;
 	
@@ -199,7 +200,7 @@ public class FloodingNode extends Node implements TimerHandler {
 	@Override
 	public void on() throws Exception {
 		super.on();
-		timer0.startPeriodic(BEACON_RATE+((Distribution.getRandom().nextInt() % 100) + 1)*10000);
+		timer0.startPeriodic(BEACON_RATE+((getRandom(RandomStreams.APP).nextInt() % 100) + 1)*10000);
 	}
 
 	public Register32 local2Global() {		
@@ -235,6 +236,14 @@ public class FloodingNode extends Node implements TimerHandler {
 		return gclock;
 	}
 
+	public int getLogicalClock() {
+		return gradientClock().toInteger();
+	}
+
+	public float getRate() {
+		return logicalClock.getRate();
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
@@ -13,9 +13,10 @@ import application.regression.LeastSquares;
 import application.regression.RegressionEntry;
 import sim.clock.ConstantDriftClock;
 import sim.clock.DynamicDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import application.trace.TracedNode;
 
-public class FtspNode extends Node implements TimerHandler{
+public class FtspNode extends Node implements TimerHandler, TracedNode {
 	
 	private static final int MAX_ENTRIES           = 8;              	// number of entries in the table
 	private static final int BEACON_RATE           = 30000000;  	 	// how often send the beacon msg (in seconds)
@@ -53,7 +54,7 @@ public class FtspNode extends Node implements TimerHandler{
 		ROOT_ID = NODE_ID;
 		sequence = 0;
 				
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 		
 		for (int i = 0; i < table.length; i++) {
 			table[i] = new RegressionEntry();
@@ -234,6 +235,14 @@ public class FtspNode extends Node implements TimerHandler{
 		return ls.calculateY(now);
 	}
 	
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return (float) ls.getSlope();
+	}
+
 	public String toString(){
 		String s = "" + Simulator.getInstance().getSecond();
 		
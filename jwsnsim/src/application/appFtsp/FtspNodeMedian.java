@@ -16,8 +16,9 @@ import core.Simulator;
 import application.regression.LeastSquares;
 import application.regression.RegressionEntry;
 import sim.clock.ConstantDriftClock;
+import application.trace.TracedNode;
 
-public class FtspNodeMedian extends Node implements TimerHandler{
+public class FtspNodeMedian extends Node implements TimerHandler, TracedNode {
 	
 	private static final int MAX_ENTRIES           = 8;              	// number of entries in the table
 	private static final int BEACON_RATE           = 30000000;  	 	// how often send the beacon msg (in seconds)
@@ -317,6 +318,14 @@ public class FtspNodeMedian extends Node implements TimerHandler{
 		return time;
 	}
 	
+	public int getLogicalClock() {
+		return myLocal2Global().toInteger();
+	}
+
+	public float getRate() {
+		return currentls.getSlope();
+	}
+
 	public String toString(){
 		String s = "" + Simulator.getInstance().getSecond();
 		
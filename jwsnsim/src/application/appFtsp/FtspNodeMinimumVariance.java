@@ -12,8 +12,9 @@ import hardware.transceiver.Transceiver;
 import application.regression.MinimumVarianceSlopeRegression;
 import application.regression.RegressionEntry;
 import sim.clock.ConstantDriftClock;
+import application.trace.TracedNode;
 
-public class FtspNodeMinimumVariance extends Node implements TimerHandler{
+public class FtspNodeMinimumVariance extends Node implements TimerHandler, TracedNode {
 	
 	private static final int MAX_ENTRIES           = 8;              	// number of entries in the table
 	private static final int BEACON_RATE           = 30000000;  	 	// how often send the beacon msg (in seconds)
@@ -210,6 +211,14 @@ public class FtspNodeMinimumVariance extends Node implements TimerHandler{
 		return ls.calculateY(CLOCK.getValue());
 	}
 	
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return ls.getSlope();
+	}
+
 	public String toString(){
 		String s = "" + Simulator.getInstance().getSecond();
 		
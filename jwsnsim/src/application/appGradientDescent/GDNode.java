@@ -13,9 +13,10 @@ import nodes.Node;
 import nodes.Position;
 import core.Simulator;
 import sim.clock.ConstantDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import application.trace.TracedNode;
 
-public class GDNode extends Node implements TimerHandler {
+public class GDNode extends Node implements TimerHandler, TracedNode {
 
 	private static final int BEACON_RATE = 30000000;
 	private static final float MAX_PPM = 0.0001f;
@@ -36,7 +37,7 @@ public class GDNode extends Node implements TimerHandler {
 
 		if (this.NODE_ID == 1)
 			CLOCK.setDrift(0.0f);
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 		// System.out.println(CLOCK.getDrift());
 
 		timer0 = new Timer(CLOCK, this);
@@ -157,7 +158,7 @@ public class GDNode extends Node implements TimerHandler {
 		super.on();
 
 		timer0.startPeriodic(BEACON_RATE
-				+ ((Distribution.getRandom().nextInt() % 100) + 1) * 10000);
+				+ ((getRandom(RandomStreams.APP).nextInt() % 100) + 1) * 10000);
 	}
 
 	public Register32 local2Global() {
@@ -166,6 +167,14 @@ public class GDNode extends Node implements TimerHandler {
 
 	boolean changed = false;
 
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return (float) logicalClock.rate;
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
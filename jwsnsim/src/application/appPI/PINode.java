@@ -9,10 +9,11 @@ import hardware.clock.Timer;
 import hardware.clock.TimerHandler;
 import hardware.transceiver.Packet;
 import hardware.transceiver.Transceiver;
+import application.trace.TracedNode;
 import sim.clock.DynamicDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
 
-public class PINode extends Node implements TimerHandler {
+public class PINode extends Node implements TimerHandler, TracedNode {
 
 	private static final int BEACON_RATE = 30000000;
 	private static final float MAX_PPM = 0.0001f;
@@ -37,7 +38,7 @@ public class PINode extends Node implements TimerHandler {
 		CLOCK = new DynamicDriftClock();
 
 		/* to start clock with a random value */
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 		
 		MAC = new CSMA(this);
 		RADIO = new Transceiver(this, MAC);
@@ -143,13 +144,21 @@ public class PINode extends Node implements TimerHandler {
 	public void on() throws Exception {
 		super.on();
 		timer0.startPeriodic(BEACON_RATE
-				+ ((Distribution.getRandom().nextInt() % 100) + 1) * 10000);
+				+ ((getRandom(RandomStreams.APP).nextInt() % 100) + 1) * 10000);
 	}
 
 	public Register32 local2Global() {
 		return logicalClock.getValue(CLOCK.getValue());
 	}
 
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return logicalClock.rate;
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
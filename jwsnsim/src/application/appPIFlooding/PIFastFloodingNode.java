@@ -10,9 +10,10 @@ import hardware.clock.TimerHandler;
 import hardware.transceiver.Packet;
 import hardware.transceiver.Transceiver;
 import sim.clock.DynamicDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import application.trace.TracedNode;
 
-public class PIFastFloodingNode extends Node implements TimerHandler {
+public class PIFastFloodingNode extends Node implements TimerHandler, TracedNode {
 
 	private static final int BEACON_RATE = 30000000;
 	private static final float MAX_PPM = 0.0001f;
@@ -33,7 +34,7 @@ public class PIFastFloodingNode extends Node implements TimerHandler {
 		MAC = new CSMA(this);
 		RADIO = new Transceiver(this, MAC);
 
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 		// System.out.println(CLOCK.getDrift());
 
 		timer0 = new Timer(CLOCK, this);
@@ -155,6 +156,14 @@ public class PIFastFloodingNode extends Node implements TimerHandler {
 
 	boolean changed = false;
 
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return (float) (logicalClock.rate);
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
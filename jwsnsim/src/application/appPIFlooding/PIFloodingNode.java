@@ -11,9 +11,10 @@ import hardware.transceiver.Packet;
 import hardware.transceiver.Transceiver;
 import sim.clock.ConstantDriftClock;
 import sim.clock.DynamicDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import application.trace.TracedNode;
 
-public class PIFloodingNode extends Node implements TimerHandler {
+public class PIFloodingNode extends Node implements TimerHandler, TracedNode {
 
 	private static final int BEACON_RATE = 30000000;
 	private static final float MAX_PPM = 0.0001f;
@@ -32,7 +33,7 @@ public class PIFloodingNode extends Node implements TimerHandler {
 		MAC = new CSMA(this);
 		RADIO = new Transceiver(this, MAC);
 
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 		// System.out.println(CLOCK.getDrift());
 
 		timer0 = new Timer(CLOCK, this);
@@ -154,7 +155,7 @@ public class PIFloodingNode extends Node implements TimerHandler {
 		super.on();
 
 		timer0.startPeriodic(BEACON_RATE
-				+ ((Distribution.getRandom().nextInt() % 100) + 1) * 10000);
+				+ ((getRandom(RandomStreams.APP).nextInt() % 100) + 1) * 10000);
 	}
 
 	public Register32 local2Global() {
@@ -163,6 +164,14 @@ public class PIFloodingNode extends Node implements TimerHandler {
 
 	boolean changed = false;
 
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return K_i;
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
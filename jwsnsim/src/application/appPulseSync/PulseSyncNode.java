@@ -14,9 +14,10 @@ import application.regression.MinimumVarianceSlopeRegression;
 import application.regression.RegressionEntry;
 import sim.clock.ConstantDriftClock;
 import sim.clock.DynamicDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import application.trace.TracedNode;
 
-public class PulseSyncNode extends Node implements TimerHandler{
+public class PulseSyncNode extends Node implements TimerHandler, TracedNode {
 	
 	private static final int MAX_ENTRIES           = 8;              	// number of entries in the table
 	private static final int BEACON_RATE           = 30000000;  	 	// how often send the beacon msg (in seconds)
@@ -62,7 +63,7 @@ public class PulseSyncNode extends Node implements TimerHandler{
 		outgoingMsg.sequence = 0;
 		
 		/* to start clock with a random value */
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 	}
 	
 	@Override
@@ -214,6 +215,14 @@ public class PulseSyncNode extends Node implements TimerHandler{
 		return ls.calculateY(now);
 	}
 	
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return ls.getSlope();
+	}
+
 	public String toString(){
 		String s = "" + Simulator.getInstance().getSecond();
 		
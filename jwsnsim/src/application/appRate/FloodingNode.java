@@ -11,9 +11,10 @@ import hardware.transceiver.Packet;
 import hardware.transceiver.Transceiver;
 import application.regression.LeastSquares;
 import sim.clock.ConstantDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import application.trace.TracedNode;
 
-public class FloodingNode extends Node implements TimerHandler {
+public class FloodingNode extends Node implements TimerHandler, TracedNode {
 
 	private static final int MAX_NEIGHBORS = 8;
 	
@@ -196,7 +197,7 @@ public class FloodingNode extends Node implements TimerHandler {
 	@Override
 	public void on() throws Exception {
 		super.on();
-		timer0.startPeriodic(BEACON_RATE+((Distribution.getRandom().nextInt() % 100) + 1)*10000);
+		timer0.startPeriodic(BEACON_RATE+((getRandom(RandomStreams.APP).nextInt() % 100) + 1)*10000);
 	}
 	
 	public Register32 local2Global(Register32 now) {
@@ -211,6 +212,14 @@ public class FloodingNode extends Node implements TimerHandler {
 		return rootClock.add(diff);
 	}
 
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return rootRate;
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
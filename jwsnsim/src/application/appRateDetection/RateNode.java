@@ -11,7 +11,7 @@ import hardware.transceiver.Packet;
 import hardware.transceiver.Transceiver;
 import application.regression.LeastSquares;
 import sim.clock.ConstantDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
 
 public class RateNode extends Node implements TimerHandler {
 
@@ -173,7 +173,7 @@ public class RateNode extends Node implements TimerHandler {
 	@Override
 	public void on() throws Exception {
 		super.on();
-		timer0.startPeriodic(BEACON_RATE+((Distribution.getRandom().nextInt() % 100) + 1)*10000);
+		timer0.startPeriodic(BEACON_RATE+((getRandom(RandomStreams.APP).nextInt() % 100) + 1)*10000);
 	}
 
 	public String toString() {
@@ -10,7 +10,7 @@ import hardware.clock.TimerHandler;
 import hardware.transceiver.Packet;
 import hardware.transceiver.Transceiver;
 import sim.clock.ConstantDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
 import fr.irit.smac.util.avt.Feedback;
 
 public class SelfNode extends Node implements TimerHandler {
@@ -30,7 +30,7 @@ public class SelfNode extends Node implements TimerHandler {
 		CLOCK = new ConstantDriftClock();
 
 		/* to start clock with a random value */
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 
 		MAC = new CSMA(this);
 		RADIO = new Transceiver(this, MAC);
@@ -120,7 +120,7 @@ public class SelfNode extends Node implements TimerHandler {
 	public void on() throws Exception {
 		super.on();
 		timer0.startPeriodic(BEACON_RATE
-				+ ((Distribution.getRandom().nextInt() % 100) + 1) * 10000);
+				+ ((getRandom(RandomStreams.APP).nextInt() % 100) + 1) * 10000);
 	}
 
 	public Register32 local2Global() {
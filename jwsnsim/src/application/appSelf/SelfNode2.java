@@ -10,9 +10,10 @@ import hardware.clock.TimerHandler;
 import hardware.transceiver.Packet;
 import hardware.transceiver.Transceiver;
 import sim.clock.ConstantDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import application.trace.TracedNode;
 
-public class SelfNode2 extends Node implements TimerHandler {
+public class SelfNode2 extends Node implements TimerHandler, TracedNode {
 
 	private static final int BEACON_RATE = 30000000;
 
@@ -28,7 +29,7 @@ public class SelfNode2 extends Node implements TimerHandler {
 		CLOCK = new ConstantDriftClock();
 
 		/* to start clock with a random value */
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 
 		MAC = new CSMA(this);
 		RADIO = new Transceiver(this, MAC);
@@ -94,13 +95,21 @@ public class SelfNode2 extends Node implements TimerHandler {
 	public void on() throws Exception {
 		super.on();
 		timer0.startPeriodic(BEACON_RATE
-				+ ((Distribution.getRandom().nextInt() % 100) + 1) * 10000);
+				+ ((getRandom(RandomStreams.APP).nextInt() % 100) + 1) * 10000);
 	}
 
 	public Register32 local2Global() {
 		return logicalClock.getValue(CLOCK.getValue());
 	}
 
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return (float) ((1.0 + logicalClock.rate) * (1.0 + CLOCK.getDrift()));
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
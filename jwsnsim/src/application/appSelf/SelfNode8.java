@@ -15,9 +15,10 @@ import nodes.Position;
 import core.Simulator;
 import application.appSelf.ClockSpeedAdapter7.NeighborData;
 import sim.clock.ConstantDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import application.trace.TracedNode;
 
-public class SelfNode8 extends Node implements TimerHandler {
+public class SelfNode8 extends Node implements TimerHandler, TracedNode {
 
 	private static final int BEACON_RATE = 30000000;
 	private static final double TOLERANCE = 1.0;
@@ -62,7 +63,7 @@ public class SelfNode8 extends Node implements TimerHandler {
 		CLOCK = new ConstantDriftClock();
 		
 		/* to start clock with a random value */
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 		
 		MAC = new CSMA(this);
 		RADIO = new Transceiver(this, MAC);
@@ -308,13 +309,21 @@ public class SelfNode8 extends Node implements TimerHandler {
 	public void on() throws Exception {
 		super.on();
 		timer0.startPeriodic(BEACON_RATE
-				+ ((Distribution.getRandom().nextInt() % 100) + 1) * 10000);
+				+ ((getRandom(RandomStreams.APP).nextInt() % 100) + 1) * 10000);
 	}
 
 	public Register32 local2Global() {
 		return logicalClock.getValue(CLOCK.getValue());
 	}
 
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return (float) ((1.0 + logicalClock.rate.getValue()) * (1.0 + CLOCK.getDrift()));
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
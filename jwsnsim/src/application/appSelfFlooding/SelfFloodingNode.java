@@ -13,10 +13,11 @@ import hardware.transceiver.Transceiver;
 import fr.irit.smac.util.avt.Feedback;
 import sim.clock.ConstantDriftClock;
 import sim.clock.DynamicDriftClock;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
 import sim.topology.Grid2D;
+import application.trace.TracedNode;
 
-public class SelfFloodingNode extends Node implements TimerHandler {
+public class SelfFloodingNode extends Node implements TimerHandler, TracedNode {
 
 	private static final int BEACON_RATE = 30000000;  
 	private static final int TOLERANCE = 1;
@@ -38,7 +39,7 @@ public class SelfFloodingNode extends Node implements TimerHandler {
 		timer0 = new Timer(CLOCK, this);
 		
 		/* to start clock with a random value */
-		CLOCK.setValue(new Register32(Math.abs(Distribution.getRandom().nextInt())));
+		CLOCK.setValue(new Register32(Math.abs(getRandom(RandomStreams.CLOCK).nextInt())));
 		
 	
 		outgoingMsg.sequence = 0;
@@ -126,7 +127,7 @@ public class SelfFloodingNode extends Node implements TimerHandler {
 	@Override
 	public void on() throws Exception {
 		super.on();
-		timer0.startPeriodic(BEACON_RATE+((Distribution.getRandom().nextInt() % 100) + 1)*10000);
+		timer0.startPeriodic(BEACON_RATE+((getRandom(RandomStreams.APP).nextInt() % 100) + 1)*10000);
 	}
 
 	public Register32 local2Global() {
@@ -134,6 +135,14 @@ public class SelfFloodingNode extends Node implements TimerHandler {
 	}
 
 	boolean changed = false;
+	public int getLogicalClock() {
+		return local2Global().toInteger();
+	}
+
+	public float getRate() {
+		return (float) logicalClock.rate.getValue();
+	}
+
 	public String toString() {
 		String s = "" + Simulator.getInstance().getSecond();
 
@@ -0,0 +1,88 @@
+package application.trace;
+
+import java.io.IOException;
+
+import application.Logger;
+
+/**
+ * Exports a trace of {@link TraceWriter} as text, one record per line with
+ * the columns in their order after a "#" line with the column names. With
+ * -legacy the lines are written like the toString() of the synchronization
+ * nodes, i.e. second, node ID, logical clock and the bits of the rate, so
+ * that the existing analysis scripts can read them.
+ *
+ * Usage: TraceExport [-legacy] input [output]
+ */
+public class TraceExport {
+
+	public static void main(String[] args) throws IOException {
+		boolean legacy = args.length > 0 && args[0].equals("-legacy");
+		int first = legacy ? 1 : 0;
+
+		if (args.length < first + 1) {
+			System.out.println("Usage: TraceExport [-legacy] input [output]");
+			System.exit(-1);
+		}
+
+		TraceReader reader = new TraceReader(args[first]);
+		Logger logger = args.length > first + 1 ? new Logger(args[first + 1]) : null;
+		StringBuilder line = new StringBuilder();
+
+		if (!legacy) {
+			line.append('#');
+			for (int i = 0; i < reader.getNumColumns(); i++)
+				line.append(' ').append(reader.getColumnName(i));
+			print(logger, line);
+		}
+
+		while (reader.next()) {
+			line.setLength(0);
+
+			if (legacy) {
+				line.append(reader.getTime() / 1024 / 1024);
+				line.append(' ').append(reader.getNode());
+				line.append(' ').append(reader.getClock() & 0xFFFFFFFFL);
+				line.append(' ').append(Float.floatToIntBits(reader.getRate()));
+			} else {
+				for (int i = 0; i < reader.getNumColumns(); i++) {
+					if (i > 0)
+						line.append(' ');
+					append(reader, i, line);
+				}
+			}
+
+			print(logger, line);
+		}
+
+		reader.close();
+		if (logger != null)
+			logger.close();
+	}
+
+	static void append(TraceReader reader, int column, StringBuilder line) {
+		switch (reader.getColumnType(column)) {
+		case TraceWriter.INT:
+			if (column == TraceWriter.CLOCK)
+				line.append(reader.getInt(column) & 0xFFFFFFFFL);
+			else
+				line.append(reader.getInt(column));
+			break;
+		case TraceWriter.LONG:
+			line.append(reader.getLong(column));
+			break;
+		case TraceWriter.FLOAT:
+			line.append(reader.getFloat(column));
+			break;
+		case TraceWriter.DOUBLE:
+			line.append(reader.getDouble(column));
+			break;
+		}
+	}
+
+	private static void print(Logger logger, StringBuilder line) {
+		if (logger == null)
+			System.out.println(line);
+		else
+			logger.log(line.toString());
+	}
+}
@@ -0,0 +1,230 @@
+package application.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a trace written by {@link TraceWriter}. The blocks are memory
+ * mapped one at a time and the records are visited with a cursor:
+ *
+ * <pre>
+ * while (reader.next())
+ * 	... reader.getTime(), reader.getFloat(column) ...
+ * </pre>
+ */
+public class TraceReader {
+
+	private RandomAccessFile file;
+	private FileChannel channel;
+
+	private String[] names;
+	private byte[] types;
+
+	/* file offset and number of rows of every block */
+	private long[] blockOffsets = new long[16];
+	private int[] blockRows = new int[16];
+	private int numBlocks = 0;
+	private long numRecords = 0;
+
+	/* cursor */
+	private int block = -1;
+	private int row = 0;
+	private int rows = 0;
+	private MappedByteBuffer buffer = null;
+	private final int[] columnOffsets;
+
+	public TraceReader(String fileName) throws IOException {
+		file = new RandomAccessFile(new File(fileName), "r");
+		channel = file.getChannel();
+
+		long offset = readHeader(fileName);
+		readBlocks(fileName, offset);
+
+		columnOffsets = new int[names.length];
+	}
+
+	/**
+	 * @return the offset of the first block
+	 */
+	private long readHeader(String fileName) throws IOException {
+		MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+				Math.min(channel.size(), 1 << 16));
+
+		try {
+			if (header.getInt() != TraceWriter.MAGIC)
+				throw new IOException(fileName + " is not a trace");
+			if (header.getInt() != TraceWriter.VERSION)
+				throw new IOException(fileName + " has an unsupported version");
+
+			int numColumns = header.getInt();
+			names = new String[numColumns];
+			types = new byte[numColumns];
+			for (int i = 0; i < numColumns; i++) {
+				types[i] = header.get();
+				TraceWriter.size(types[i]);
+				byte[] name = new byte[header.getShort()];
+				header.get(name);
+				names[i] = new String(name, "UTF-8");
+			}
+		} catch (RuntimeException e) {
+			throw new IOException(fileName + " has a corrupt header");
+		}
+
+		return header.position();
+	}
+
+	private void readBlocks(String fileName, long offset) throws IOException {
+		int rowSize = 0;
+		for (int i = 0; i < types.length; i++)
+			rowSize += TraceWriter.size(types[i]);
+
+		ByteBuffer count = ByteBuffer.allocate(4);
+		long size = channel.size();
+
+		while (offset < size) {
+			count.clear();
+			while (count.hasRemaining() && channel.read(count, offset + count.position()) > 0)
+				;
+			if (count.hasRemaining())
+				throw new IOException(fileName + " is truncated");
+
+			int n = count.getInt(0);
+			if (n <= 0 || n > TraceWriter.BLOCK_ROWS || offset + 4 + (long) n * rowSize > size)
+				throw new IOException(fileName + " is truncated");
+
+			if (numBlocks == blockOffsets.length) {
+				long[] offsets = new long[numBlocks * 2];
+				int[] counts = new int[numBlocks * 2];
+				System.arraycopy(blockOffsets, 0, offsets, 0, numBlocks);
+				System.arraycopy(blockRows, 0, counts, 0, numBlocks);
+				blockOffsets = offsets;
+				blockRows = counts;
+			}
+
+			blockOffsets[numBlocks] = offset;
+			blockRows[numBlocks] = n;
+			numBlocks++;
+			numRecords += n;
+			offset += 4 + (long) n * rowSize;
+		}
+	}
+
+	public int getNumColumns() {
+		return names.length;
+	}
+
+	public String getColumnName(int column) {
+		return names[column];
+	}
+
+	public byte getColumnType(int column) {
+		return types[column];
+	}
+
+	/**
+	 * @return the index of the column with the given name or -1
+	 */
+	public int getColumn(String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name))
+				return i;
+		}
+		return -1;
+	}
+
+	public long getNumRecords() {
+		return numRecords;
+	}
+
+	public int getNumBlocks() {
+		return numBlocks;
+	}
+
+	/**
+	 * Moves the cursor to the next record.
+	 *
+	 * @return false if there are no more records
+	 */
+	public boolean next() throws IOException {
+		if (++row < rows)
+			return true;
+
+		if (block + 1 >= numBlocks)
+			return false;
+
+		load(block + 1);
+		return true;
+	}
+
+	/**
+	 * Moves the cursor before the first record of the given block.
+	 */
+	public void seekBlock(int index) throws IOException {
+		load(index);
+		row = -1;
+	}
+
+	private void load(int index) throws IOException {
+		rows = blockRows[index];
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+				blockOffsets[index] + 4, rowSize() * (long) rows);
+
+		int offset = 0;
+		for (int i = 0; i < types.length; i++) {
+			columnOffsets[i] = offset;
+			offset += TraceWriter.size(types[i]) * rows;
+		}
+
+		block = index;
+		row = 0;
+	}
+
+	private int rowSize() {
+		int size = 0;
+		for (int i = 0; i < types.length; i++)
+			size += TraceWriter.size(types[i]);
+		return size;
+	}
+
+	public long getTime() {
+		return buffer.getLong(columnOffsets[TraceWriter.TIME] + row * 8);
+	}
+
+	public int getNode() {
+		return buffer.getInt(columnOffsets[TraceWriter.NODE] + row * 4);
+	}
+
+	public int getClock() {
+		return buffer.getInt(columnOffsets[TraceWriter.CLOCK] + row * 4);
+	}
+
+	public float getRate() {
+		return buffer.getFloat(columnOffsets[TraceWriter.RATE] + row * 4);
+	}
+
+	public int getInt(int column) {
+		return buffer.getInt(columnOffsets[column] + row * 4);
+	}
+
+	public long getLong(int column) {
+		return buffer.getLong(columnOffsets[column] + row * 8);
+	}
+
+	public float getFloat(int column) {
+		return buffer.getFloat(columnOffsets[column] + row * 4);
+	}
+
+	public double getDouble(int column) {
+		return buffer.getDouble(columnOffsets[column] + row * 8);
+	}
+
+	public void close() throws IOException {
+		buffer = null;
+		channel.close();
+		file.close();
+	}
+}
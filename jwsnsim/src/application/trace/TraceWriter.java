@@ -0,0 +1,214 @@
+package application.trace;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes synchronization samples to a binary columnar trace. Every record
+ * has the simulation time in ticks, the node ID, the logical clock and its
+ * rate, followed by the protocol specific columns given to the constructor.
+ *
+ * The file starts with a header (magic, version, number of columns and the
+ * type and name of each column) followed by blocks of at most BLOCK_ROWS
+ * records. A block holds its number of rows and then the values of each
+ * column one after the other, so a column can be read without touching the
+ * others. All values are big endian.
+ */
+public class TraceWriter {
+
+	/** "JWSL" */
+	public static final int MAGIC = 0x4A57534C;
+	public static final int VERSION = 1;
+
+	/* column types */
+	public static final byte INT = 0;
+	public static final byte LONG = 1;
+	public static final byte FLOAT = 2;
+	public static final byte DOUBLE = 3;
+
+	/* columns every trace has */
+	public static final int TIME = 0;
+	public static final int NODE = 1;
+	public static final int CLOCK = 2;
+	public static final int RATE = 3;
+
+	static final String[] FIXED_NAMES = { "time", "node", "clock", "rate" };
+	static final byte[] FIXED_TYPES = { LONG, INT, INT, FLOAT };
+
+	static final int BLOCK_ROWS = 1 << 16;
+
+	private FileChannel out;
+	private final String[] names;
+	private final byte[] types;
+
+	private final ByteBuffer blockHeader = ByteBuffer.allocate(4);
+	private final ByteBuffer[] columns;
+	private int rows = 0;
+	private long numRecords = 0;
+
+	public TraceWriter(String file) throws IOException {
+		this(file, new String[0], new byte[0]);
+	}
+
+	/**
+	 * Creates a trace with the given protocol specific columns, they are
+	 * numbered from {@link #RATE} + 1 in the given order.
+	 */
+	public TraceWriter(String file, String[] names, byte[] types) throws IOException {
+		if (names.length != types.length)
+			throw new IllegalArgumentException("every column needs a name and a type");
+
+		int numColumns = FIXED_NAMES.length + names.length;
+		this.names = new String[numColumns];
+		this.types = new byte[numColumns];
+		System.arraycopy(FIXED_NAMES, 0, this.names, 0, FIXED_NAMES.length);
+		System.arraycopy(FIXED_TYPES, 0, this.types, 0, FIXED_TYPES.length);
+		System.arraycopy(names, 0, this.names, FIXED_NAMES.length, names.length);
+		System.arraycopy(types, 0, this.types, FIXED_TYPES.length, types.length);
+
+		columns = new ByteBuffer[numColumns];
+		for (int i = 0; i < numColumns; i++) {
+			columns[i] = ByteBuffer.allocate(BLOCK_ROWS * size(this.types[i]));
+		}
+
+		out = new FileOutputStream(file).getChannel();
+		writeHeader();
+	}
+
+	/**
+	 * @return the number of bytes of a value of the given column type
+	 */
+	static int size(byte type) {
+		switch (type) {
+		case INT:
+		case FLOAT:
+			return 4;
+		case LONG:
+		case DOUBLE:
+			return 8;
+		default:
+			throw new IllegalArgumentException("unknown column type " + type);
+		}
+	}
+
+	private void writeHeader() throws IOException {
+		int size = 12;
+		byte[][] encoded = new byte[names.length][];
+		for (int i = 0; i < names.length; i++) {
+			encoded[i] = names[i].getBytes("UTF-8");
+			size += 3 + encoded[i].length;
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(size);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(names.length);
+		for (int i = 0; i < names.length; i++) {
+			header.put(types[i]);
+			header.putShort((short) encoded[i].length);
+			header.put(encoded[i]);
+		}
+
+		header.flip();
+		while (header.hasRemaining())
+			out.write(header);
+	}
+
+	public int getNumColumns() {
+		return names.length;
+	}
+
+	public long getNumRecords() {
+		return numRecords;
+	}
+
+	/**
+	 * Starts a new record, its protocol specific columns are zero until set.
+	 */
+	public void record(long time, int node, int clock, float rate) throws IOException {
+		if (rows == BLOCK_ROWS)
+			writeBlock();
+
+		columns[TIME].putLong(rows * 8, time);
+		columns[NODE].putInt(rows * 4, node);
+		columns[CLOCK].putInt(rows * 4, clock);
+		columns[RATE].putFloat(rows * 4, rate);
+		for (int i = FIXED_NAMES.length; i < columns.length; i++) {
+			if (size(types[i]) == 4)
+				columns[i].putInt(rows * 4, 0);
+			else
+				columns[i].putLong(rows * 8, 0);
+		}
+
+		rows++;
+		numRecords++;
+	}
+
+	public void record(long time, TracedNode node) throws IOException {
+		record(time, node.getID(), node.getLogicalClock(), node.getRate());
+	}
+
+	/* setters of the protocol specific columns of the current record */
+
+	public void setInt(int column, int value) {
+		check(column, INT);
+		columns[column].putInt((rows - 1) * 4, value);
+	}
+
+	public void setLong(int column, long value) {
+		check(column, LONG);
+		columns[column].putLong((rows - 1) * 8, value);
+	}
+
+	public void setFloat(int column, float value) {
+		check(column, FLOAT);
+		columns[column].putFloat((rows - 1) * 4, value);
+	}
+
+	public void setDouble(int column, double value) {
+		check(column, DOUBLE);
+		columns[column].putDouble((rows - 1) * 8, value);
+	}
+
+	private void check(int column, byte type) {
+		if (types[column] != type)
+			throw new IllegalArgumentException("column " + names[column] + " has another type");
+		if (rows == 0)
+			throw new IllegalStateException("no record has been started");
+	}
+
+	private void writeBlock() throws IOException {
+		ByteBuffer[] buffers = new ByteBuffer[columns.length + 1];
+
+		blockHeader.clear();
+		blockHeader.putInt(rows);
+		blockHeader.flip();
+		buffers[0] = blockHeader;
+
+		for (int i = 0; i < columns.length; i++) {
+			columns[i].clear();
+			columns[i].limit(rows * size(types[i]));
+			buffers[i + 1] = columns[i];
+		}
+
+		long remaining = 4;
+		for (int i = 1; i < buffers.length; i++)
+			remaining += buffers[i].remaining();
+		while (remaining > 0)
+			remaining -= out.write(buffers);
+
+		rows = 0;
+	}
+
+	public void close() throws IOException {
+		if (out == null)
+			return;
+
+		if (rows > 0)
+			writeBlock();
+		out.close();
+		out = null;
+	}
+}
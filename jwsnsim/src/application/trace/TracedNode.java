@@ -0,0 +1,23 @@
+package application.trace;
+
+/**
+ * A node whose logical clock can be written to a synchronization trace.
+ * The text log lines of these nodes are written from the sampled values in
+ * the layout of {@link application.ClockSnapshot#appendLine}, so toString()
+ * is not used for them.
+ */
+public interface TracedNode {
+
+	public int getID();
+
+	/**
+	 * @return the logical clock at the current local time, i.e. the value
+	 *         of local2Global()
+	 */
+	public int getLogicalClock();
+
+	/**
+	 * @return the rate of the logical clock
+	 */
+	public float getRate();
+}
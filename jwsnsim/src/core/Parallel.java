@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs independent per-node work of a simulation phase, e.g. node
+ * construction or sampling, on a shared pool of daemon threads. The index
+ * range is split into contiguous chunks, one per task, and the call returns
+ * when all chunks are done. Simulation events must not be registered from
+ * the chunks since the simulator is not thread safe.
+ */
+public class Parallel {
+
+	/** number of threads used when the caller does not specify it */
+	public static int defaultThreads = Runtime.getRuntime().availableProcessors();
+
+	private static ExecutorService pool = null;
+	private static int poolSize = 0;
+
+	public interface Body {
+		/**
+		 * Processes the indices from (inclusive) to (exclusive).
+		 */
+		void run(int from, int to);
+	}
+
+	public static void forChunks(int n, Body body) {
+		forChunks(n, defaultThreads, body);
+	}
+
+	public static void forChunks(int n, int numThreads, final Body body) {
+		int numChunks = Math.min(numThreads, n);
+
+		if (numChunks <= 1) {
+			body.run(0, n);
+			return;
+		}
+
+		ExecutorService executor = getPool(numChunks);
+		List<Future<?>> futures = new ArrayList<Future<?>>(numChunks);
+
+		for (int c = 0; c < numChunks; c++) {
+			final int from = (int) ((long) n * c / numChunks);
+			final int to = (int) ((long) n * (c + 1) / numChunks);
+
+			futures.add(executor.submit(new Runnable() {
+				public void run() {
+					body.run(from, to);
+				}
+			}));
+		}
+
+		try {
+			for (int c = 0; c < numChunks; c++) {
+				futures.get(c).get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	private static synchronized ExecutorService getPool(int numThreads) {
+		if (pool == null || poolSize < numThreads) {
+			if (pool != null)
+				pool.shutdown();
+
+			pool = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "simulation-worker");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			poolSize = numThreads;
+		}
+
+		return pool;
+	}
+}
@@ -37,6 +37,7 @@ package core;
 
 public abstract class Simulation {
 	private long MAXSECOND = 0;
+	private boolean finished = false;
 	
 	protected Simulation(int seconds){
 		this.MAXSECOND = seconds;
@@ -44,7 +45,7 @@ public abstract class Simulation {
 	
 	public void run(){
 		
-		while(Simulator.getInstance().getSecond() < MAXSECOND){
+		while(!finished && Simulator.getInstance().getSecond() < MAXSECOND){
 			Simulator.getInstance().tick();
 		}
 		
@@ -53,5 +54,17 @@ public abstract class Simulation {
 		exit();
 	}
 	
+	/**
+	 * Ends the run after the current event instead of at MAXSECOND, e.g.
+	 * once the simulated network has converged.
+	 */
+	public void finish(){
+		finished = true;
+	}
+	
+	public boolean isFinished(){
+		return finished;
+	}
+	
 	public abstract void exit();
 }
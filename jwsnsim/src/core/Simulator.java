@@ -48,6 +48,9 @@ public class Simulator {
 	
 	private Simulation simulation = null;
 	
+	/** number of events fired since the last reset */
+	private long numEvents = 0;
+	
 	protected Simulator(){
 		events = new Vector<SimulationEvent>();
 	}
@@ -96,6 +99,7 @@ public class Simulator {
 		}
 		
 		if(eventToFire != null){
+			numEvents++;
 			simTime = eventToFire.getEventTime();						
 			eventToFire.signalEvent();
 		}			
@@ -106,6 +110,11 @@ public class Simulator {
 		events.removeAllElements();		
 		events = new Vector<SimulationEvent>();		
 		simTime = new SimulationTime();
+		numEvents = 0;
+	}
+	
+	public long getNumEvents(){
+		return numEvents;
 	}
 	
 	public SimulationTime getTime(){
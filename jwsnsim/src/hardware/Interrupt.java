@@ -41,7 +41,7 @@ import core.SimulationEventObserver;
 public class Interrupt implements SimulationEventObserver {
 
 	/** Simulation event which will be used for interrupt */
-	SimulationEvent event = null;
+	SimulationEvent event = new SimulationEvent(this);
 	InterruptHandler handler = null;
 
 	public Interrupt(InterruptHandler handler) {
@@ -36,7 +36,10 @@
 package hardware.clock;
 
 import hardware.Register32;
-import sim.statistics.GaussianDistribution;
+
+import java.util.Random;
+
+import sim.statistics.Distribution;
 
 public class Clock32 {
 
@@ -54,6 +57,9 @@ public class Clock32 {
 	/** is started? */
 	protected boolean started = false;
 	protected boolean dynamicDrift = false;
+	
+	/** stream of the random drift, the shared generator if not set */
+	private Random random = null;
 
 	public void start() {
 		started = true;
@@ -67,8 +73,8 @@ public class Clock32 {
 		/* Add dynamic noise */
 		double noise = 0.0;
 		if (dynamicDrift) {
-			noise = GaussianDistribution.nextGaussian(NOISE_MEAN,
-					NOISE_VARIANCE);
+			noise = NOISE_MEAN + getRandom().nextGaussian()
+					* Math.sqrt(NOISE_VARIANCE);
 			noise /= 100000000.0;
 		}
 
@@ -78,7 +84,7 @@ public class Clock32 {
 	}
 
 	public void setRandomDrift() {
-		drift = GaussianDistribution.nextGaussian(MEAN_DRIFT, DRIFT_VARIANCE);
+		drift = MEAN_DRIFT + getRandom().nextGaussian() * Math.sqrt(DRIFT_VARIANCE);
 		drift /= 1000000.0;
 	}
 
@@ -90,6 +96,14 @@ public class Clock32 {
 		return drift;
 	}
 
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+	
+	private Random getRandom() {
+		return random == null ? Distribution.getRandom() : random;
+	}
+
 	public void setDynamicDrift() {
 		dynamicDrift = true;
 	}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package hardware.transceiver;
+
+/**
+ * Precomputed path loss 1/(1+d^(2*fallingFactorHalf)) keyed on the squared
+ * distance d^2. The key range is split into binary octaves of the squared
+ * distance and every octave is divided into the same number of equally
+ * spaced entries. The octave and the entry are read directly from the
+ * exponent and mantissa bits of the key, so a lookup needs neither Math.pow
+ * nor a logarithm, and the relative interpolation error is nearly the same
+ * for short and long links.
+ * 
+ * The number of entries per octave is doubled until the measured maximum
+ * relative error against the exact formula is below the requested bound,
+ * or up to 2^MAX_ENTRY_BITS entries if the bound cannot be met. Keys
+ * outside of the table range are evaluated exactly.
+ */
+public class PathLossTable {
+
+	/** smallest tabulated squared distance is 2^MIN_EXPONENT */
+	private static final int MIN_EXPONENT = -16;
+	/** largest tabulated squared distance is below 2^MAX_EXPONENT */
+	private static final int MAX_EXPONENT = 48;
+
+	private static final int MIN_ENTRY_BITS = 4;
+	private static final int MAX_ENTRY_BITS = 14;
+
+	private final double fallingFactorHalf;
+	private final double errorBound;
+	private final double maxRelativeError;
+
+	private final int entryBits;
+	private final int fractionBits;
+	private final double fractionScale;
+	private final double[] table;
+
+	/**
+	 * Builds the smallest table whose error is below the bound, or the
+	 * largest table if none is.
+	 */
+	public static PathLossTable create(double fallingFactorHalf, double errorBound) {
+		PathLossTable table = null;
+
+		for (int entryBits = MIN_ENTRY_BITS; entryBits <= MAX_ENTRY_BITS; entryBits++) {
+			table = new PathLossTable(fallingFactorHalf, errorBound, entryBits);
+			if (table.maxRelativeError <= errorBound)
+				break;
+		}
+
+		return table;
+	}
+
+	/**
+	 * All fields are final, so a table can be published to other threads
+	 * without synchronization once it is built.
+	 */
+	private PathLossTable(double fallingFactorHalf, double errorBound, int entryBits) {
+		this.fallingFactorHalf = fallingFactorHalf;
+		this.errorBound = errorBound;
+		this.entryBits = entryBits;
+		this.fractionBits = 52 - entryBits;
+		this.fractionScale = Math.scalb(1.0, -fractionBits);
+		this.table = new double[(MAX_EXPONENT - MIN_EXPONENT) * (1 << entryBits) + 1];
+
+		for (int i = 0; i < table.length; i++) {
+			table[i] = exact(keyOf(i));
+		}
+
+		this.maxRelativeError = validate();
+	}
+
+	private double keyOf(int index) {
+		int entries = 1 << entryBits;
+		int octave = index / entries;
+		int entry = index % entries;
+
+		return Math.scalb(1.0 + (double) entry / entries, MIN_EXPONENT + octave);
+	}
+
+	/**
+	 * Measures the relative error in the middle of every interval, which is
+	 * where linear interpolation deviates most from the exact curve.
+	 */
+	private double validate() {
+		double error = 0.0;
+
+		for (int i = 0; i < table.length - 1; i++) {
+			double key = (keyOf(i) + keyOf(i + 1)) / 2.0;
+			double exact = exact(key);
+			error = Math.max(error, Math.abs(lookup(key) - exact) / exact);
+		}
+
+		return error;
+	}
+
+	public double exact(double distanceSquare) {
+		return 1.0 / (1.0 + Math.pow(distanceSquare, fallingFactorHalf));
+	}
+
+	public double lookup(double distanceSquare) {
+		int exponent = Math.getExponent(distanceSquare);
+
+		if (exponent < MIN_EXPONENT || exponent >= MAX_EXPONENT)
+			return exact(distanceSquare);
+
+		long bits = Double.doubleToRawLongBits(distanceSquare);
+		int entry = (int) ((bits >>> fractionBits) & ((1 << entryBits) - 1));
+		double fraction = (bits & ((1L << fractionBits) - 1)) * fractionScale;
+
+		int index = ((exponent - MIN_EXPONENT) << entryBits) + entry;
+		double low = table[index];
+
+		return low + fraction * (table[index + 1] - low);
+	}
+
+	public double getFallingFactorHalf() {
+		return fallingFactorHalf;
+	}
+
+	/**
+	 * @return the requested error bound, which can be smaller than the
+	 *         maximum relative error of the largest table
+	 */
+	public double getErrorBound() {
+		return errorBound;
+	}
+
+	public double getMaxRelativeError() {
+		return maxRelativeError;
+	}
+
+	public int size() {
+		return table.length;
+	}
+}
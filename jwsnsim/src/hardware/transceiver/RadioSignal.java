@@ -56,7 +56,10 @@
 
 package hardware.transceiver;
 
-import sim.statistics.GaussianDistribution;
+import java.util.Random;
+
+import sim.statistics.Distribution;
+import sim.statistics.Ziggurat;
 
 public class RadioSignal {
 
@@ -70,20 +73,65 @@ public class RadioSignal {
 	public static double receivingStartSNR = 4.0;
 	public static double corruptionSNR = 2.0;
 
+	/** use the precomputed path loss table instead of Math.pow */
+	public static boolean fastPropagation = false;
+	/** maximum relative error of the path loss table */
+	public static double maxPathLossError = 1e-4;
+
+	private static volatile PathLossTable pathLossTable = null;
+
 	public static double getStaticFading(double distanceSquare,
 			double maxSignalStrength) {
+		return getStaticFading(distanceSquare, maxSignalStrength,
+				Distribution.getRandom());
+	}
+
+	public static double getStaticFading(double distanceSquare,
+			double maxSignalStrength, Random random) {
 		double staticRandomFading = 1.0 + staticRandomFactor
-				* GaussianDistribution.nextGaussian();
+				* Ziggurat.nextGaussian(random);
 
 		return staticRandomFading <= 0.0 ? 0.0 : maxSignalStrength
-				* staticRandomFading
-				/ (1.0 + Math.pow(distanceSquare, fallingFactorHalf));
+				* staticRandomFading * getPathLoss(distanceSquare);
+	}
+
+	/**
+	 * Returns the deterministic part of the signal attenuation.
+	 */
+	public static double getPathLoss(double distanceSquare) {
+		if (!fastPropagation)
+			return 1.0 / (1.0 + Math.pow(distanceSquare, fallingFactorHalf));
+
+		return getPathLossTable().lookup(distanceSquare);
+	}
+
+	/**
+	 * Returns the path loss table of the current parameters. The maximum
+	 * signal strength is a linear factor, hence the table only depends on
+	 * the falling factor and it is rebuilt when the falling factor or the
+	 * error bound changes.
+	 */
+	public static PathLossTable getPathLossTable() {
+		PathLossTable table = pathLossTable;
+		if (table == null || table.getFallingFactorHalf() != fallingFactorHalf
+				|| table.getErrorBound() != maxPathLossError) {
+			table = PathLossTable.create(fallingFactorHalf, maxPathLossError);
+			pathLossTable = table;
+		}
+
+		return table;
 	}
 
 	public static double getDynamicStrength(double signalStrength,
 			double staticFading) {
+		return getDynamicStrength(signalStrength, staticFading,
+				Distribution.getRandom());
+	}
+
+	public static double getDynamicStrength(double signalStrength,
+			double staticFading, Random random) {
 		double dynamicRandomFading = 1.0 + dynamicRandomFactor
-				* GaussianDistribution.nextGaussian();
+				* Ziggurat.nextGaussian(random);
 		return dynamicRandomFading <= 0.0 ? 0.0 : signalStrength * staticFading
 				* dynamicRandomFading;
 	}
@@ -44,6 +44,10 @@ public class Transceiver implements InterruptHandler {
 
 	protected static int TRANSMISSION_TIME = 960;
 
+	/** print every n-th corruption to the console, 0 disables the output */
+	public static int debugSampling = 0;
+	private static long corruptionsSeen = 0;
+
 	protected Packet packetToTransmit = null;
 	protected Packet receivingPacket = null;
 
@@ -58,10 +62,18 @@ public class Transceiver implements InterruptHandler {
 
 	protected double maxTransceiverStrength = 100;
 	private double noiseStrength = 0.0f;
+	private Interference interference = null;
 
 	Transceiver[] receivers;
 	double[] signalStrengths;
 
+	/* reception outcome counters */
+	private long received = 0;
+	private long corruptedPackets = 0;
+	private long lostToNoise = 0;
+	private long droppedWhileTransmitting = 0;
+	private long ccaBusy = 0;
+
 	public Transceiver(Clock32 clock, PacketListener listener) {
 		this.listener = listener;
 		this.clock = clock;
@@ -78,6 +90,9 @@ public class Transceiver implements InterruptHandler {
 		this.receivers = receivers;
 		this.signalStrengths = signalStrengths;
 
+		if (interference != null)
+			interference.transmissionBegin();
+
 		for (int i = 0; i < receivers.length; i++) {
 			receivers[i].receptionBegin(packet, signalStrengths[i]);
 		}
@@ -86,12 +101,23 @@ public class Transceiver implements InterruptHandler {
 	}
 
 	private void setTransmissionTimestamp() {
+		stampTransmission(packetToTransmit);
+	}
+
+	/**
+	 * Converts the event time of the packet into its age at the
+	 * transmission time.
+	 */
+	public void stampTransmission(Packet packet) {
 		Register32 age = clock.getValue();
-		age = age.subtract(packetToTransmit.getEventTime());
-		packetToTransmit.setEventTime(age);
+		age = age.subtract(packet.getEventTime());
+		packet.setEventTime(age);
 	}
 
 	public void endTransmission() {
+		if (interference != null)
+			interference.transmissionEnd();
+
 		for (int i = 0; i < receivers.length; i++) {
 			receivers[i].receptionEnd(packetToTransmit, signalStrengths[i]);
 		}
@@ -105,11 +131,12 @@ public class Transceiver implements InterruptHandler {
 
 		if (receiving) {
 			noiseStrength += signalStrength;
-			if (RadioSignal.isCorrupted(signalStrength, noiseStrength))
+			lostToNoise++;
+			if (RadioSignal.isCorrupted(signalStrength, getNoise()))
 				corrupted = true;
 		} else {
 			if (!transmitting
-					&& RadioSignal.isReceivable(signalStrength, noiseStrength)) {
+					&& RadioSignal.isReceivable(signalStrength, getNoise())) {
 				// start receiving
 				receivingPacket = new Packet((Packet) packet);
 				setReceptionTimestamp();
@@ -117,15 +144,27 @@ public class Transceiver implements InterruptHandler {
 				corrupted = false;
 			} else {
 				noiseStrength += signalStrength;
+				if (transmitting)
+					droppedWhileTransmitting++;
+				else
+					lostToNoise++;
 			}
 		}
 	}
 
 	private void setReceptionTimestamp() {
+		stampReception(receivingPacket);
+	}
+
+	/**
+	 * Sets the reception timestamp of the packet and converts its age back
+	 * into an event time of the local clock.
+	 */
+	public void stampReception(Packet packet) {
 		Register32 timestamp = clock.getValue();
-		receivingPacket.setTimestamp(timestamp);
-		timestamp = timestamp.subtract(receivingPacket.getEventTime());
-		receivingPacket.setEventTime(timestamp);
+		packet.setTimestamp(timestamp);
+		timestamp = timestamp.subtract(packet.getEventTime());
+		packet.setEventTime(timestamp);
 	}
 
 	public void receptionEnd(Packet packet, double signalStrength) {
@@ -133,10 +172,18 @@ public class Transceiver implements InterruptHandler {
 		if (receivingPacket != null && receivingPacket.equals(packet)) {
 			receiving = false;
 
+			/* far transmitters may have started during the reception */
+			if (interference != null
+					&& RadioSignal.isCorrupted(signalStrength, getNoise()))
+				corrupted = true;
+
 			if (!corrupted) {
-				listener.receivePacket(receivingPacket);
-			} else
-				System.out.println("Corruption!");
+				deliver(receivingPacket);
+			} else {
+				corruptedPackets++;
+				if (debugSampling > 0 && ++corruptionsSeen % debugSampling == 0)
+					System.out.println("Corruption! (" + corruptionsSeen + " so far)");
+			}
 
 			receivingPacket = null;
 		} else {
@@ -149,6 +196,10 @@ public class Transceiver implements InterruptHandler {
 		endTransmission();
 	}
 
+	public static int getTransmissionTime() {
+		return TRANSMISSION_TIME;
+	}
+
 	public double getMaxSignalStrength() {
 		return maxTransceiverStrength;
 	}
@@ -158,11 +209,59 @@ public class Transceiver implements InterruptHandler {
 	}
 
 	public boolean CCA() {
-		return RadioSignal.isChannelFree(noiseStrength) || transmitting || receiving;
+		boolean free = !transmitting && !receiving
+				&& RadioSignal.isChannelFree(getNoise());
+		if (!free)
+			ccaBusy++;
+
+		return free;
+	}
+
+	/**
+	 * Hands a successfully received packet to the listener.
+	 */
+	public void deliver(Packet packet) {
+		received++;
+		listener.receivePacket(packet);
+	}
+
+	/**
+	 * @return noise of the signals received through links plus the
+	 *         interference which does not arrive through links
+	 */
+	private double getNoise() {
+		if (interference == null)
+			return noiseStrength;
+
+		return noiseStrength + interference.getStrength();
+	}
+
+	public void setInterference(Interference interference) {
+		this.interference = interference;
 	}
 
 	public boolean isReceiving() {
 
 		return receiving;
 	}
+
+	public long getReceived() {
+		return received;
+	}
+
+	public long getCorrupted() {
+		return corruptedPackets;
+	}
+
+	public long getLostToNoise() {
+		return lostToNoise;
+	}
+
+	public long getDroppedWhileTransmitting() {
+		return droppedWhileTransmitting;
+	}
+
+	public long getCcaBusy() {
+		return ccaBusy;
+	}
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Connectivity graph in compressed sparse row form. The neighbors of the
+ * node with index i are targets[offsets[i]] ... targets[offsets[i+1]-1],
+ * where node indices are the indices in the node array the graph was built
+ * from. Graphs of the signal radio model also store the static fading of
+ * each link in weights[offsets[i]] ... weights[offsets[i+1]-1].
+ */
+public class AdjacencyGraph {
+
+	protected int[] offsets;
+	protected int[] targets;
+	protected double[] weights;
+
+	public AdjacencyGraph(int[] offsets, int[] targets) {
+		this(offsets, targets, null);
+	}
+
+	public AdjacencyGraph(int[] offsets, int[] targets, double[] weights) {
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+	}
+
+	/**
+	 * Builds the unit disk graph of the given nodes, i.e. two nodes are
+	 * neighbors if their distance is at most the given range. Nodes are
+	 * bucketed in a grid of cells which are at least as large as the range,
+	 * so only the 3x3 surrounding cells have to be searched for each node.
+	 */
+	public static AdjacencyGraph unitDisk(Node[] nodes, double range) {
+		int n = nodes.length;
+		double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+
+		for (int i = 0; i < n; i++) {
+			Position p = nodes[i].getPosition();
+			minX = Math.min(minX, p.xCoord);
+			minY = Math.min(minY, p.yCoord);
+			maxX = Math.max(maxX, p.xCoord);
+			maxY = Math.max(maxY, p.yCoord);
+		}
+
+		/* larger cells keep the grid in O(n) memory for sparse deployments */
+		double cellSize = Math.max(range, 1.0);
+		double area = (maxX - minX + cellSize) * (maxY - minY + cellSize);
+		double cellLimit = 4.0 * n + 16.0;
+		if (area / (cellSize * cellSize) > cellLimit)
+			cellSize = Math.sqrt(area / cellLimit);
+
+		int cellsX = (int) ((maxX - minX) / cellSize) + 1;
+		int cellsY = (int) ((maxY - minY) / cellSize) + 1;
+
+		/* counting sort of the node indices by cell */
+		int[] cellOf = new int[n];
+		int[] cellStart = new int[cellsX * cellsY + 1];
+		for (int i = 0; i < n; i++) {
+			Position p = nodes[i].getPosition();
+			int cx = (int) ((p.xCoord - minX) / cellSize);
+			int cy = (int) ((p.yCoord - minY) / cellSize);
+			cellOf[i] = cy * cellsX + cx;
+			cellStart[cellOf[i] + 1]++;
+		}
+		for (int c = 0; c < cellsX * cellsY; c++) {
+			cellStart[c + 1] += cellStart[c];
+		}
+		int[] sorted = new int[n];
+		int[] fill = new int[cellsX * cellsY];
+		for (int i = 0; i < n; i++) {
+			int c = cellOf[i];
+			sorted[cellStart[c] + fill[c]++] = i;
+		}
+
+		int[] offsets = new int[n + 1];
+		int[] targets = new int[Math.max(16, n * 8)];
+		int numEdges = 0;
+		double rangeSquare = range * range;
+
+		for (int i = 0; i < n; i++) {
+			Position p = nodes[i].getPosition();
+			int cx = cellOf[i] % cellsX;
+			int cy = cellOf[i] / cellsX;
+
+			for (int y = Math.max(cy - 1, 0); y <= Math.min(cy + 1, cellsY - 1); y++) {
+				for (int x = Math.max(cx - 1, 0); x <= Math.min(cx + 1, cellsX - 1); x++) {
+					int c = y * cellsX + x;
+					for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+						int j = sorted[k];
+						if (j != i && p.squareDistanceTo(nodes[j].getPosition()) <= rangeSquare) {
+							if (numEdges == targets.length) {
+								int[] grown = new int[targets.length * 2];
+								System.arraycopy(targets, 0, grown, 0, numEdges);
+								targets = grown;
+							}
+							targets[numEdges++] = j;
+						}
+					}
+				}
+			}
+			offsets[i + 1] = numEdges;
+		}
+
+		int[] trimmed = new int[numEdges];
+		System.arraycopy(targets, 0, trimmed, 0, numEdges);
+
+		return new AdjacencyGraph(offsets, trimmed);
+	}
+
+	/**
+	 * @return the graph which contains each edge of this graph in both
+	 *         directions, without duplicates and without weights
+	 */
+	public AdjacencyGraph undirected() {
+		int n = getNumNodes();
+		int[] degree = new int[n];
+
+		for (int i = 0; i < n; i++) {
+			degree[i] += getDegree(i);
+			for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+				degree[targets[k]]++;
+			}
+		}
+
+		int[] start = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			start[i + 1] = start[i] + degree[i];
+		}
+
+		int[] fill = new int[n];
+		int[] all = new int[start[n]];
+		for (int i = 0; i < n; i++) {
+			for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+				int j = targets[k];
+				all[start[i] + fill[i]++] = j;
+				all[start[j] + fill[j]++] = i;
+			}
+		}
+
+		/* remove the duplicates of symmetric edges */
+		int[] newOffsets = new int[n + 1];
+		int[] newTargets = new int[all.length];
+		int[] seen = new int[n];
+		int numEdges = 0;
+
+		for (int i = 0; i < n; i++) {
+			for (int k = start[i]; k < start[i + 1]; k++) {
+				int j = all[k];
+				if (seen[j] != i + 1) {
+					seen[j] = i + 1;
+					newTargets[numEdges++] = j;
+				}
+			}
+			newOffsets[i + 1] = numEdges;
+		}
+
+		int[] trimmed = new int[numEdges];
+		System.arraycopy(newTargets, 0, trimmed, 0, numEdges);
+
+		return new AdjacencyGraph(newOffsets, trimmed);
+	}
+
+	/**
+	 * Greedy coloring in which nodes within two hops get different colors.
+	 * Nodes are colored in decreasing order of their degree.
+	 * 
+	 * @return the color of each node, starting from 0
+	 */
+	public int[] colorDistance2() {
+		int n = getNumNodes();
+		int[] colors = new int[n];
+		Integer[] order = new Integer[n];
+
+		for (int i = 0; i < n; i++) {
+			colors[i] = -1;
+			order[i] = i;
+		}
+
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				return getDegree(b) - getDegree(a);
+			}
+		});
+
+		/* used[c] == v + 1 marks color c as taken in the neighborhood of v */
+		int[] used = new int[n + 1];
+
+		for (int o = 0; o < n; o++) {
+			int v = order[o];
+
+			for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+				int u = targets[k];
+				if (colors[u] >= 0)
+					used[colors[u]] = v + 1;
+
+				for (int l = offsets[u]; l < offsets[u + 1]; l++) {
+					int w = targets[l];
+					if (colors[w] >= 0)
+						used[colors[w]] = v + 1;
+				}
+			}
+
+			int color = 0;
+			while (used[color] == v + 1)
+				color++;
+
+			colors[v] = color;
+		}
+
+		return colors;
+	}
+
+	public int getNumNodes() {
+		return offsets.length - 1;
+	}
+
+	public int getNumEdges() {
+		return targets.length;
+	}
+
+	public int getDegree(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	public int getNeighbor(int node, int k) {
+		return targets[offsets[node] + k];
+	}
+
+	/**
+	 * @return the weight of the k-th link of the node, only defined for
+	 *         weighted graphs
+	 */
+	public double getWeight(int node, int k) {
+		return weights[offsets[node] + k];
+	}
+
+	public boolean hasWeights() {
+		return weights != null;
+	}
+
+	public int[] getOffsets() {
+		return offsets;
+	}
+
+	public int[] getTargets() {
+		return targets;
+	}
+
+	public double[] getWeights() {
+		return weights;
+	}
+}
@@ -40,9 +40,10 @@ import hardware.clock.Clock32;
 import hardware.clock.Timer;
 import hardware.clock.TimerHandler;
 import hardware.transceiver.Packet;
-import sim.statistics.Distribution;
+import hardware.transceiver.Transceiver;
+import sim.configuration.MacConfiguration;
 
-public class CSMA implements TimerHandler {
+public class CSMA extends MacLayer implements TimerHandler {
 
 
 	protected Packet sendingPacket = null;
@@ -52,14 +53,32 @@ public class CSMA implements TimerHandler {
 	protected static int sendMinBackOffTime = 100;
 	protected static int sendRandomBackOffTime = 30;
 
-	protected Channel channel;
 	protected Timer timer;
+	
+	/** number of busy channel assessments of the current packet */
+	protected int retries = 0;
+	
+	/* channel load counters */
+	private long ccaAttempts = 0;
+	private long ccaBusy = 0;
+	private long retryDrops = 0;
 
 	public CSMA(Channel channel) {		
+		super(channel);
 		this.timer = new Timer(new Clock32(),this);
 	}
 	
+	/**
+	 * Sends the packet after a random waiting time, or queues it if another
+	 * packet is being sent.
+	 * 
+	 * @return false if the packet is dropped since the queue is full
+	 */
+	@Override
 	public boolean sendPacket(Packet packet) {
+		if (sendingPacket != null)
+			return queue.add(packet);
+		
 		sendingPacket = packet;
 		timer.startOneshot(generateWaitingTime());
 		return true;
@@ -67,19 +86,70 @@ public class CSMA implements TimerHandler {
 
 	@Override
 	public void fireEvent(Timer timer) {
-		if (channel.ClearChannelAssessment())
+		ccaAttempts++;
+		
+		if (channel.ClearChannelAssessment()) {
 			channel.transmit(sendingPacket);
+			
+			/* the next packet competes for the channel after this transmission */
+			nextPacket(Transceiver.getTransmissionTime());
+			return;
+		}
+		
+		ccaBusy++;
+		retries++;
+		
+		if (MacConfiguration.maxRetries > 0 && retries >= MacConfiguration.maxRetries) {
+			retryDrops++;
+			nextPacket(0);
+		}
+		else if (MacConfiguration.exponentialBackoff)
+			timer.startOneshot(generateBackOffTime(retries));
 		else
 			timer.startOneshot(generateBackOffTime());
 	}
+	
+	private void nextPacket(int delay) {
+		retries = 0;
+		sendingPacket = queue.poll();
+		if (sendingPacket != null)
+			timer.startOneshot(delay + generateWaitingTime());
+	}
 
-	public static int generateWaitingTime() {
+	public int generateWaitingTime() {
 		return sendMinWaitingTime
-				+ (int) (Distribution.getRandom().nextDouble() * sendRandomWaitingTime);
+				+ (int) (getRandom().nextDouble() * sendRandomWaitingTime);
 	}
 
-	protected static int generateBackOffTime() {
+	protected int generateBackOffTime() {
+		return sendMinBackOffTime
+				+ (int) (getRandom().nextDouble() * sendRandomBackOffTime);
+	}
+	
+	/**
+	 * Binary exponential backoff: the random part of the backoff window is
+	 * doubled for each failed channel assessment of the packet.
+	 */
+	protected int generateBackOffTime(int retries) {
+		int exponent = Math.min(retries - 1, MacConfiguration.maxBackoffExponent);
+		int window = sendRandomBackOffTime << Math.max(exponent, 0);
+		
 		return sendMinBackOffTime
-				+ (int) (Distribution.getRandom().nextDouble() * sendRandomBackOffTime);
+				+ (int) (getRandom().nextDouble() * window);
+	}
+	
+	public long getCcaAttempts() {
+		return ccaAttempts;
+	}
+	
+	public long getRetryDrops() {
+		return retryDrops;
+	}
+	
+	/**
+	 * @return the ratio of the channel assessments which found the channel busy
+	 */
+	public double getBusyChannelRatio() {
+		return ccaAttempts == 0 ? 0.0 : (double) ccaBusy / ccaAttempts;
 	}
 }
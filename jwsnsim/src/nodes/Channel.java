@@ -54,34 +54,55 @@
  */
 package nodes;
 
+import hardware.transceiver.Interference;
 import hardware.transceiver.Packet;
 import hardware.transceiver.PacketListener;
 import hardware.transceiver.RadioSignal;
 import hardware.transceiver.Transceiver;
 
-public class Channel implements PacketListener{
+import java.util.Random;
+
+import sim.statistics.RandomStreams;
+
+public class Channel implements PacketListener, Interference {
 	protected Node source = null;
 
 	protected Transceiver edges[] = null;
+	protected Node neighbors[] = new Node[0];
 	protected double[] staticFadings;
 	protected double[] dynamicStrengths;
+	
+	/** fading samples of this channel are drawn from the radio stream of its node */
+	protected Random random = null;
+	/** number of link updates, each one draws its static fadings from its own stream */
+	protected int linkUpdates = 0;
+
+	/* cell and position of the current transmission in the far-field model */
+	protected int transmissionCell;
+	protected Position transmissionPosition = new Position();
 
 	public Channel(Node source) {
 		this.source = source;
+		
+		if (FarFieldInterference.isEnabled())
+			source.getTransceiver().setInterference(this);
 	}
 
 	public void updateChannel(Node[] nodes) {
 
+		Random linkRandom = createLinkStream(source.getID(), linkUpdates++);
 		Transceiver[] edges = new Transceiver[nodes.length];
+		Node[] neighbors = new Node[nodes.length];
 		double[] staticFadings = new double[nodes.length];
 
 		int j = 0;
 		for (int i = 0; i < nodes.length; i++) {
 			if(nodes[i]!=source){
 				double staticRadioStrength = RadioSignal.getStaticFading(
-						source.getDistanceSquare(nodes[i]), source.getTransceiver().getMaxSignalStrength());
+						source.getDistanceSquare(nodes[i]), source.getTransceiver().getMaxSignalStrength(), linkRandom);
 				if (staticRadioStrength >= RadioSignal.radioStrengthCutoff) {
 					edges[j] = nodes[i].getTransceiver();
+					neighbors[j] = nodes[i];
 					staticFadings[j++] = staticRadioStrength;
 				}
 				
@@ -89,16 +110,93 @@ public class Channel implements PacketListener{
 		}
 
 		this.edges = new Transceiver[j];
+		this.neighbors = new Node[j];
 		this.staticFadings = new double[j];
 		this.dynamicStrengths = new double[j];
 
 		System.arraycopy(edges, 0, this.edges, 0, j);
+		System.arraycopy(neighbors, 0, this.neighbors, 0, j);
 		System.arraycopy(staticFadings, 0, this.staticFadings, 0, j);				
 	}
 	
+	/**
+	 * Recomputes the links of this channel to the moved nodes, the source
+	 * node itself did not move. The links to the other nodes and their
+	 * static fadings are kept.
+	 * 
+	 * @param moved marks the moved nodes, indexed as the node array
+	 * @param movedIndices the indices of the moved nodes
+	 */
+	public void updateLinks(Node[] nodes, boolean[] moved, int[] movedIndices) {
+		Random linkRandom = createLinkStream(source.getID(), linkUpdates++);
+		int capacity = this.neighbors.length + movedIndices.length;
+		Transceiver[] edges = new Transceiver[capacity];
+		Node[] neighbors = new Node[capacity];
+		double[] staticFadings = new double[capacity];
+
+		int j = 0;
+		for (int k = 0; k < this.neighbors.length; k++) {
+			if (!moved[RadioModel.indexOf(nodes, this.neighbors[k])]) {
+				edges[j] = this.edges[k];
+				neighbors[j] = this.neighbors[k];
+				staticFadings[j++] = this.staticFadings[k];
+			}
+		}
+
+		for (int k = 0; k < movedIndices.length; k++) {
+			Node node = nodes[movedIndices[k]];
+			double staticRadioStrength = RadioSignal.getStaticFading(
+					source.getDistanceSquare(node), source.getTransceiver().getMaxSignalStrength(), linkRandom);
+			if (staticRadioStrength >= RadioSignal.radioStrengthCutoff) {
+				edges[j] = node.getTransceiver();
+				neighbors[j] = node;
+				staticFadings[j++] = staticRadioStrength;
+			}
+		}
+
+		this.edges = new Transceiver[j];
+		this.neighbors = new Node[j];
+		this.staticFadings = new double[j];
+		this.dynamicStrengths = new double[j];
+
+		System.arraycopy(edges, 0, this.edges, 0, j);
+		System.arraycopy(neighbors, 0, this.neighbors, 0, j);
+		System.arraycopy(staticFadings, 0, this.staticFadings, 0, j);
+	}
+	
+	/**
+	 * Sets the links of this channel from a precomputed graph, e.g. one of
+	 * the {@link ConnectivityCache}, instead of computing them.
+	 * 
+	 * @param index the index of the source node in the nodes of the graph
+	 */
+	public void setLinks(Node[] nodes, AdjacencyGraph graph, int index) {
+		linkUpdates = 1;
+		int degree = graph.getDegree(index);
+		
+		this.edges = new Transceiver[degree];
+		this.neighbors = new Node[degree];
+		this.staticFadings = new double[degree];
+		this.dynamicStrengths = new double[degree];
+		
+		for (int k = 0; k < degree; k++) {
+			neighbors[k] = nodes[graph.getNeighbor(index, k)];
+			edges[k] = neighbors[k].getTransceiver();
+			staticFadings[k] = graph.getWeight(index, k);
+		}
+	}
+	
 	public void transmit(Packet packet) {
+		NodeFactory.getRadioModel().transmit(source, packet);
+	}
+
+	/**
+	 * Transmits the packet through the links of this channel with dynamic
+	 * fading, used by the {@link SignalRadioModel}.
+	 */
+	public void transmitSignal(Packet packet) {
 		for (int i = 0; i < dynamicStrengths.length; i++) {
-			dynamicStrengths[i] = RadioSignal.getDynamicStrength(1, staticFadings[i]);	
+			dynamicStrengths[i] = RadioSignal.getDynamicStrength(1, staticFadings[i], getRandom());	
 		}
 		
 		source.getTransceiver().transmit(packet, edges,dynamicStrengths);
@@ -110,10 +208,75 @@ public class Channel implements PacketListener{
 	}
 	
 	public boolean ClearChannelAssessment(){
-		return source.getTransceiver().CCA();
+		return NodeFactory.getRadioModel().isChannelClear(source);
+	}
+	
+	/**
+	 * Creates the stream of the static fadings of the given link update of
+	 * a node. The static fadings do not shift the dynamic fading draws of
+	 * the radio stream, and the {@link ConnectivityCache} draws the same
+	 * fadings as the first update of the channels.
+	 */
+	public static Random createLinkStream(int nodeID, int update) {
+		return RandomStreams.create(RandomStreams.key(nodeID, update), RandomStreams.LINKS);
+	}
+	
+	/**
+	 * The stream is taken from the node on first use, since the channel is
+	 * created before the ID of the node is set.
+	 */
+	protected Random getRandom() {
+		if (random == null)
+			random = source.getRandom(RandomStreams.RADIO);
+		
+		return random;
+	}
+	
+	public Node getNode() {
+		return source;
+	}
+	
+	/**
+	 * @return the nodes which receive the transmissions of this channel
+	 */
+	public Node[] getNeighbors() {
+		return neighbors;
+	}
+	
+	/**
+	 * @return the static fading of the link to getNeighbors()[k]
+	 */
+	public double getStaticFading(int k) {
+		return staticFadings[k];
 	}
 	
 	public boolean isReceiving(){
 		return source.getTransceiver().isReceiving();
 	}
+
+	/**
+	 * Far-field interference at the source node. The link range of the
+	 * source node is used for all transmitters, i.e. transmission strengths
+	 * are assumed to be homogeneous.
+	 */
+	@Override
+	public double getStrength() {
+		double range = FarFieldInterference.getLinkRange(source.getTransceiver().getMaxSignalStrength());
+		return FarFieldInterference.getInstance().strengthAt(source.getPosition(), range);
+	}
+
+	@Override
+	public void transmissionBegin() {
+		FarFieldInterference farField = FarFieldInterference.getInstance();
+		transmissionPosition.set(source.getPosition());
+		transmissionCell = farField.cellOf(transmissionPosition);
+		farField.transmissionBegin(transmissionCell, transmissionPosition,
+				source.getTransceiver().getMaxSignalStrength());
+	}
+
+	@Override
+	public void transmissionEnd() {
+		FarFieldInterference.getInstance().transmissionEnd(transmissionCell,
+				transmissionPosition, source.getTransceiver().getMaxSignalStrength());
+	}
 }
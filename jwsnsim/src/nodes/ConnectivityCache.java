@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes;
+
+import hardware.transceiver.RadioSignal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import core.Parallel;
+import sim.configuration.ConnectivityConfiguration;
+import sim.statistics.Distribution;
+import sim.statistics.XoroshiroRandom;
+import sim.topology.Topology;
+
+/**
+ * Keeps the links and static fadings of the signal radio model between
+ * runs. A graph is identified by the topology, the number of nodes and the
+ * seed of the simulation; a fingerprint of the node positions and radio
+ * parameters guards against stale files. Graphs are stored in
+ * {@link ConnectivityConfiguration#cacheDirectory}. A file is memory-mapped
+ * only while it is read into heap arrays, and graphs loaded by this process
+ * are kept for the following runs. The channels of every run still copy
+ * their links out of the graph, so runs share the file and the graph but
+ * not the links of their channels.
+ * 
+ * The static fading of the links from node i is drawn from the stream of
+ * the first link update of its channel, see
+ * {@link Channel#createLinkStream}. A cached graph is therefore the same
+ * network as the one computed by the channels, the graph does not depend
+ * on the creation order of the channels and it can be built in parallel.
+ */
+public class ConnectivityCache {
+
+	private static final int MAGIC = 0x43535234; // "CSR4"
+	private static final int HEADER_SIZE = 28;
+
+	private static Map<String, AdjacencyGraph> graphs = new HashMap<String, AdjacencyGraph>();
+
+	/**
+	 * Returns the graph of the nodes placed by the given topology, it is
+	 * loaded from the cache directory or built and stored there.
+	 */
+	public static synchronized AdjacencyGraph getGraph(Topology topology, Node[] nodes) {
+		long seed = Distribution.getSeed();
+		long fingerprint = fingerprint(nodes);
+		String name = topology.getClass().getSimpleName() + "-" + nodes.length + "-"
+				+ Long.toHexString(seed) + "-" + Long.toHexString(fingerprint) + ".csr";
+
+		AdjacencyGraph graph = graphs.get(name);
+		if (graph != null)
+			return graph;
+
+		File file = new File(ConnectivityConfiguration.cacheDirectory, name);
+		try {
+			if (file.exists())
+				graph = read(file, nodes.length, seed, fingerprint);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		if (graph == null) {
+			graph = build(nodes);
+			try {
+				write(file, graph, seed, fingerprint);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+
+		graphs.put(name, graph);
+		return graph;
+	}
+
+	/**
+	 * Forgets the graphs loaded by this process, the files are kept.
+	 */
+	public static synchronized void clear() {
+		graphs.clear();
+	}
+
+	/**
+	 * Computes the links of all node pairs whose static signal strength is
+	 * above {@link RadioSignal#radioStrengthCutoff}.
+	 */
+	public static AdjacencyGraph build(final Node[] nodes) {
+		final int n = nodes.length;
+		final int[][] rowTargets = new int[n][];
+		final double[][] rowFadings = new double[n][];
+
+		Parallel.forChunks(n, new Parallel.Body() {
+			public void run(int from, int to) {
+				int[] targets = new int[n];
+				double[] fadings = new double[n];
+
+				for (int i = from; i < to; i++) {
+					Node source = nodes[i];
+					Random random = Channel.createLinkStream(source.getID(), 0);
+					double maxSignalStrength = source.getTransceiver().getMaxSignalStrength();
+					int degree = 0;
+
+					for (int j = 0; j < n; j++) {
+						if (j != i) {
+							double fading = RadioSignal.getStaticFading(
+									source.getDistanceSquare(nodes[j]), maxSignalStrength, random);
+							if (fading >= RadioSignal.radioStrengthCutoff) {
+								targets[degree] = j;
+								fadings[degree++] = fading;
+							}
+						}
+					}
+
+					rowTargets[i] = new int[degree];
+					rowFadings[i] = new double[degree];
+					System.arraycopy(targets, 0, rowTargets[i], 0, degree);
+					System.arraycopy(fadings, 0, rowFadings[i], 0, degree);
+				}
+			}
+		});
+
+		int[] offsets = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			offsets[i + 1] = offsets[i] + rowTargets[i].length;
+		}
+
+		int[] targets = new int[offsets[n]];
+		double[] fadings = new double[offsets[n]];
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(rowTargets[i], 0, targets, offsets[i], rowTargets[i].length);
+			System.arraycopy(rowFadings[i], 0, fadings, offsets[i], rowFadings[i].length);
+		}
+
+		return new AdjacencyGraph(offsets, targets, fadings);
+	}
+
+	/**
+	 * The graph is written to a temporary file which is renamed, so that
+	 * concurrent runs never see a partially written graph.
+	 */
+	static void write(File file, AdjacencyGraph graph, long seed, long fingerprint) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		directory.mkdirs();
+		File temp = File.createTempFile(file.getName(), ".tmp", directory);
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16));
+		try {
+			int[] offsets = graph.getOffsets();
+			int[] targets = graph.getTargets();
+			double[] weights = graph.getWeights();
+
+			out.writeInt(MAGIC);
+			out.writeInt(graph.getNumNodes());
+			out.writeInt(graph.getNumEdges());
+			out.writeLong(seed);
+			out.writeLong(fingerprint);
+			for (int i = 0; i < offsets.length; i++)
+				out.writeInt(offsets[i]);
+			for (int i = 0; i < targets.length; i++)
+				out.writeInt(targets[i]);
+			for (int i = 0; i < weights.length; i++)
+				out.writeDouble(weights[i]);
+		} finally {
+			out.close();
+		}
+
+		/* another run may have stored the same graph in the meantime */
+		if (!temp.renameTo(file))
+			temp.delete();
+	}
+
+	/**
+	 * @return the graph stored in the file or null if it does not match
+	 */
+	static AdjacencyGraph read(File file, int numNodes, long seed, long fingerprint) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			if (channel.size() < HEADER_SIZE)
+				return null;
+
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC || buffer.getInt() != numNodes)
+				return null;
+
+			int numEdges = buffer.getInt();
+			if (buffer.getLong() != seed || buffer.getLong() != fingerprint)
+				return null;
+			if (channel.size() != HEADER_SIZE + 4L * (numNodes + 1) + 12L * numEdges)
+				return null;
+
+			int[] offsets = new int[numNodes + 1];
+			int[] targets = new int[numEdges];
+			double[] weights = new double[numEdges];
+
+			buffer.asIntBuffer().get(offsets);
+			advance(buffer, 4 * offsets.length);
+			buffer.asIntBuffer().get(targets);
+			advance(buffer, 4 * targets.length);
+			buffer.asDoubleBuffer().get(weights);
+
+			return new AdjacencyGraph(offsets, targets, weights);
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static void advance(ByteBuffer buffer, int bytes) {
+		buffer.position(buffer.position() + bytes);
+	}
+
+	/**
+	 * Hash of everything besides the topology and the seed which the links
+	 * depend on.
+	 */
+	static long fingerprint(Node[] nodes) {
+		long hash = XoroshiroRandom.mix64(Double.doubleToLongBits(RadioSignal.fallingFactorHalf));
+		hash = XoroshiroRandom.mix64(hash ^ Double.doubleToLongBits(RadioSignal.staticRandomFactor));
+		hash = XoroshiroRandom.mix64(hash ^ Double.doubleToLongBits(RadioSignal.radioStrengthCutoff));
+		hash = XoroshiroRandom.mix64(hash ^ (RadioSignal.fastPropagation ? 1 : 0));
+		hash = XoroshiroRandom.mix64(hash ^ Double.doubleToLongBits(RadioSignal.maxPathLossError));
+
+		for (int i = 0; i < nodes.length; i++) {
+			Position p = nodes[i].getPosition();
+			hash = XoroshiroRandom.mix64(hash ^ Double.doubleToLongBits(p.xCoord));
+			hash = XoroshiroRandom.mix64(hash ^ Double.doubleToLongBits(p.yCoord));
+			hash = XoroshiroRandom.mix64(hash ^ Double.doubleToLongBits(p.zCoord));
+			hash = XoroshiroRandom.mix64(hash ^ Double.doubleToLongBits(nodes[i].getTransceiver().getMaxSignalStrength()));
+		}
+
+		return hash;
+	}
+}
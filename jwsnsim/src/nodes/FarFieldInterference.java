@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes;
+
+import hardware.transceiver.RadioSignal;
+import sim.configuration.AreaConfiguration;
+import sim.configuration.InterferenceConfiguration;
+
+/**
+ * Hierarchical interference model. Transmitters close to a receiver reach it
+ * through the links of its channel exactly as before. The remaining active
+ * transmitters are aggregated in a grid of square cells: each cell keeps
+ * the total transmission power of its transmitters and their power weighted
+ * centroid. The far-field interference at a receiver is the sum of the
+ * attenuated powers of the active cells which are completely out of the
+ * link range of the receiver, so it costs O(active cells) instead of O(N).
+ * 
+ * Transmitters in cells which are partially in the link range but whose
+ * signal is below the link cutoff are ignored, as they were before.
+ */
+public class FarFieldInterference {
+
+	private static FarFieldInterference instance = null;
+
+	private final double cellSize;
+	private final int cellsX;
+	private final int cellsY;
+
+	/* per cell aggregates of the active transmitters */
+	private final double[] power;
+	private final double[] powerX;
+	private final double[] powerY;
+	private final double[] powerZ;
+	private final int[] transmitters;
+
+	/* indices of the cells with at least one active transmitter */
+	private final int[] activeCells;
+	private final int[] activePosition;
+	private int numActiveCells = 0;
+
+	protected FarFieldInterference(double cellSize) {
+		this.cellSize = cellSize;
+		cellsX = Math.max(1, (int) Math.ceil(AreaConfiguration.dimX / cellSize));
+		cellsY = Math.max(1, (int) Math.ceil(AreaConfiguration.dimY / cellSize));
+
+		int numCells = cellsX * cellsY;
+		power = new double[numCells];
+		powerX = new double[numCells];
+		powerY = new double[numCells];
+		powerZ = new double[numCells];
+		transmitters = new int[numCells];
+		activeCells = new int[numCells];
+		activePosition = new int[numCells];
+	}
+
+	public static boolean isEnabled() {
+		return InterferenceConfiguration.farField;
+	}
+
+	public static FarFieldInterference getInstance() {
+		if (instance == null)
+			instance = new FarFieldInterference(InterferenceConfiguration.cellSize);
+
+		return instance;
+	}
+
+	/**
+	 * Discards all active transmitters, e.g. before a new simulation run
+	 * with a different deployment area.
+	 */
+	public static void reset() {
+		instance = null;
+	}
+
+	public int cellOf(Position p) {
+		int x = (int) (p.xCoord / cellSize);
+		int y = (int) (p.yCoord / cellSize);
+
+		x = Math.min(Math.max(x, 0), cellsX - 1);
+		y = Math.min(Math.max(y, 0), cellsY - 1);
+
+		return y * cellsX + x;
+	}
+
+	public void transmissionBegin(int cell, Position p, double strength) {
+		if (transmitters[cell]++ == 0) {
+			activePosition[cell] = numActiveCells;
+			activeCells[numActiveCells++] = cell;
+		}
+
+		power[cell] += strength;
+		powerX[cell] += strength * p.xCoord;
+		powerY[cell] += strength * p.yCoord;
+		powerZ[cell] += strength * p.zCoord;
+	}
+
+	public void transmissionEnd(int cell, Position p, double strength) {
+		if (--transmitters[cell] == 0) {
+			/* move the last active cell into the freed slot */
+			int last = activeCells[--numActiveCells];
+			activeCells[activePosition[cell]] = last;
+			activePosition[last] = activePosition[cell];
+
+			power[cell] = powerX[cell] = powerY[cell] = powerZ[cell] = 0.0;
+		} else {
+			power[cell] -= strength;
+			powerX[cell] -= strength * p.xCoord;
+			powerY[cell] -= strength * p.yCoord;
+			powerZ[cell] -= strength * p.zCoord;
+		}
+	}
+
+	/**
+	 * Returns the aggregated strength of the active transmitters in the cells
+	 * which lie completely outside of the given range around the receiver.
+	 */
+	public double strengthAt(Position p, double linkRange) {
+		double strength = 0.0;
+
+		for (int i = 0; i < numActiveCells; i++) {
+			int cell = activeCells[i];
+
+			if (distanceSquareToCell(cell, p) <= linkRange * linkRange)
+				continue;
+
+			double x = powerX[cell] / power[cell] - p.xCoord;
+			double y = powerY[cell] / power[cell] - p.yCoord;
+			double z = powerZ[cell] / power[cell] - p.zCoord;
+
+			strength += power[cell] * RadioSignal.getPathLoss(x * x + y * y + z * z);
+		}
+
+		return strength;
+	}
+
+	private double distanceSquareToCell(int cell, Position p) {
+		double minX = (cell % cellsX) * cellSize;
+		double minY = (cell / cellsX) * cellSize;
+
+		double dx = Math.max(Math.max(minX - p.xCoord, p.xCoord - (minX + cellSize)), 0.0);
+		double dy = Math.max(Math.max(minY - p.yCoord, p.yCoord - (minY + cellSize)), 0.0);
+
+		return dx * dx + dy * dy;
+	}
+
+	/**
+	 * Distance beyond which a signal without random fading is below the
+	 * link cutoff.
+	 */
+	public static double getLinkRange(double maxSignalStrength) {
+		double ratio = maxSignalStrength / RadioSignal.radioStrengthCutoff - 1.0;
+		if (ratio <= 0.0)
+			return 0.0;
+
+		return Math.sqrt(Math.pow(ratio, 1.0 / RadioSignal.fallingFactorHalf));
+	}
+
+	public int getNumActiveCells() {
+		return numActiveCells;
+	}
+}
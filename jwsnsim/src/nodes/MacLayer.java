@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes;
+
+import hardware.transceiver.Packet;
+
+import java.util.Random;
+
+import sim.configuration.MacConfiguration;
+import sim.statistics.RandomStreams;
+
+/**
+ * Medium access control of a node. Decides when the packets of the node
+ * are handed to its channel and buffers the packets which have to wait.
+ */
+public abstract class MacLayer {
+
+	protected Channel channel;
+
+	/** packets which arrive while another packet is being sent */
+	protected PacketQueue queue = new PacketQueue();
+	
+	/** stream of the random waiting times, taken from the node on first use */
+	private Random random = null;
+
+	protected MacLayer(Channel channel) {
+		this.channel = channel;
+	}
+
+	protected Random getRandom() {
+		if (random == null)
+			random = channel.getNode().getRandom(RandomStreams.MAC);
+
+		return random;
+	}
+
+	/**
+	 * Creates the MAC layer selected in {@link MacConfiguration}.
+	 */
+	public static MacLayer create(Channel channel) {
+		if (MacConfiguration.mac == MacConfiguration.TDMA)
+			return new TDMA(channel);
+
+		return new CSMA(channel);
+	}
+
+	/**
+	 * @return false if the packet is dropped
+	 */
+	public abstract boolean sendPacket(Packet packet);
+
+	public PacketQueue getQueue() {
+		return queue;
+	}
+}
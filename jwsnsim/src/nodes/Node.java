@@ -39,6 +39,10 @@ import hardware.transceiver.Packet;
 import hardware.transceiver.Transceiver;
 import hardware.transceiver.PacketListener;
 
+import java.util.Random;
+
+import sim.statistics.RandomStreams;
+
 public abstract class Node implements PacketListener{
 	protected int NODE_ID;
 	protected Clock32 CLOCK = new Clock32();
@@ -48,15 +52,32 @@ public abstract class Node implements PacketListener{
 	protected boolean running = false;
 	protected Position position = null;
 	
-	protected CSMA csmaMAC = new CSMA(CHANNEL);
+	protected MacLayer MAC = MacLayer.create(CHANNEL);
+	
+	private Random[] streams = new Random[RandomStreams.NUM_PURPOSES];
 
 	public Node(int id) {
 		this.NODE_ID = id;
+		CLOCK.setRandom(getRandom(RandomStreams.CLOCK));
 	}
 
 	public Node(int id, Position position) {
 		this.NODE_ID = id;
 		this.position = position;
+		CLOCK.setRandom(getRandom(RandomStreams.CLOCK));
+	}
+	
+	/**
+	 * Returns the random stream of this node for the given purpose, e.g.
+	 * {@link RandomStreams#APP} for the jitter of the protocol. The streams
+	 * are keyed by the ID of the node, so they are available once the
+	 * constructor of this class has set the ID.
+	 */
+	public Random getRandom(int purpose) {
+		if (streams[purpose] == null)
+			streams[purpose] = RandomStreams.create(NODE_ID, purpose);
+		
+		return streams[purpose];
 	}
 
 	public Clock32 getClock() {
@@ -70,6 +91,10 @@ public abstract class Node implements PacketListener{
 	public Channel getChannel() {
 		return CHANNEL;
 	}
+	
+	public MacLayer getMAC() {
+		return MAC;
+	}
 
 	public double getDistance(Node other) {
 		return position.distanceTo(other.getPosition());
@@ -105,7 +130,7 @@ public abstract class Node implements PacketListener{
 	}
 	
 	public void sendPacket(Packet packet){
-		csmaMAC.sendPacket(packet);
+		MAC.sendPacket(packet);
 	}
 
 	public String toString() {
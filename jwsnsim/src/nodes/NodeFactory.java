@@ -1,36 +1,173 @@
 package nodes;
 
 import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
 
+import core.Parallel;
+import sim.configuration.MacConfiguration;
+import sim.statistics.Distribution;
 import sim.topology.Topology;
 
 public class NodeFactory {
 	static public int numNodes;
 	static public Node[] nodes = null;
+	static private RadioModel radioModel = new SignalRadioModel();
+	static private Map<String, NodeSupplier> suppliers = new HashMap<String, NodeSupplier>();
 	
 	public static void createNodes(String classToLoad, int numNodes,Topology topology){
+		createNodes(classToLoad, numNodes, topology, 1);
+	}
+	
+	/**
+	 * Creates the nodes of the simulation with the given number of threads.
+	 * The positions are always drawn sequentially from the topology, the
+	 * nodes are then constructed in parallel chunks. Nodes which draw from
+	 * their own streams, see {@link Node#getRandom(int)}, are the same for
+	 * any number of threads; constructors which draw from the shared random
+	 * generator get values depending on the scheduling of the threads. The
+	 * nodes are not started, see {@link #startNodes()}.
+	 */
+	public static void createNodes(String classToLoad, int numNodes,Topology topology, int numThreads){
 		NodeFactory.numNodes = numNodes;
 		topology.initialize();
-		nodes = new Node[numNodes];	
+		nodes = new Node[numNodes];
+		
+		final NodeSupplier supplier = getSupplier(classToLoad);
+		
+		if(numThreads <= 1){
+			for(int i=0;i<numNodes;i++){
+				nodes[i] = supplier.create(i+1, topology.getNextPosition());
+			}
+		}
+		else{
+			final Position[] positions = new Position[numNodes];
+			for(int i=0;i<numNodes;i++){
+				positions[i] = topology.getNextPosition();
+			}
+			
+			Distribution.getRandom(); // initialize the shared generator before the threads use it
+			Parallel.forChunks(numNodes, numThreads, new Parallel.Body() {
+				public void run(int from, int to) {
+					for(int i=from;i<to;i++){
+						nodes[i] = supplier.create(i+1, positions[i]);
+					}
+				}
+			});
+		}
+		
+		radioModel.initializeConnectivity(nodes, topology);
+		assignSlots();
+	}
+	
+	/**
+	 * Turns on all created nodes.
+	 */
+	public static void startNodes(){
 		for(int i=0;i<numNodes;i++){
-			nodes[i] = createNode(classToLoad, i+1, topology.getNextPosition());
+			try {
+				nodes[i].on();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
 		}
-
+	}
+	
+	/**
+	 * Registers the supplier which creates the nodes of the given class
+	 * instead of the reflective constructor call. A null supplier restores
+	 * the reflective call.
+	 */
+	public static void registerSupplier(String className, NodeSupplier supplier){
+		synchronized (suppliers) {
+			suppliers.put(className, supplier);
+		}
+	}
+	
+	/**
+	 * Returns the supplier of the given node class. Classes without a
+	 * registered supplier are resolved once and their (int, Position)
+	 * constructor is cached.
+	 */
+	static NodeSupplier getSupplier(String className){
+		synchronized (suppliers) {
+			NodeSupplier supplier = suppliers.get(className);
+			
+			if(supplier == null){
+				supplier = new ConstructorSupplier(className);
+				suppliers.put(className, supplier);
+			}
+			
+			return supplier;
+		}
+	}
+	
+	/**
+	 * Recomputes the links of the nodes and the schedule of the MAC layers
+	 * which depend on them.
+	 */
+	public static void updateConnectivity(){
+		radioModel.updateConnectivity(nodes);
+		assignSlots();
+	}
+	
+	/**
+	 * Recomputes the links of the marked nodes, which are indexed as the
+	 * node array, and the schedule of the MAC layers.
+	 */
+	public static void updateConnectivity(boolean[] moved){
+		radioModel.updateConnectivity(nodes, moved);
+		assignSlots();
+	}
+	
+	private static void assignSlots(){
+		if(MacConfiguration.mac == MacConfiguration.TDMA)
+			TDMA.assignSlots(nodes, radioModel.getGraph());
+	}
+	
+	/**
+	 * Selects the radio model which connects the nodes. Connectivity is
+	 * computed when the nodes are created.
+	 */
+	public static void setRadioModel(RadioModel model){
+		radioModel = model;
+	}
+	
+	public static RadioModel getRadioModel(){
+		return radioModel;
 	}
 	
 	static Node createNode(String className,int id, Position position){
-		Class<?> c;
-		Object object = null;
-		try {
-			c = Class.forName(className);
-			Constructor<?> cons = c.getConstructor(int.class,Position.class);
-			object = cons.newInstance(new Object[] {id,position});
-		} catch (Exception e) {				
-			e.printStackTrace();
-			System.out.println("Problem loading/finding class "+ className );
-			System.exit(-1);
+		return getSupplier(className).create(id, position);
+	}
+	
+	private static class ConstructorSupplier implements NodeSupplier {
+		private String className;
+		private Constructor<?> constructor;
+		
+		ConstructorSupplier(String className){
+			this.className = className;
+			
+			try {
+				constructor = Class.forName(className).getConstructor(int.class,Position.class);
+			} catch (Exception e) {				
+				e.printStackTrace();
+				System.out.println("Problem loading/finding class "+ className );
+				System.exit(-1);
+			}
 		}
 		
-		return (Node)object;
+		public Node create(int id, Position position) {
+			Object object = null;
+			try {
+				object = constructor.newInstance(id,position);
+			} catch (Exception e) {				
+				e.printStackTrace();
+				System.out.println("Problem creating node of class "+ className );
+				System.exit(-1);
+			}
+			
+			return (Node)object;
+		}
 	}
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes;
+
+import hardware.transceiver.Packet;
+import sim.configuration.MacConfiguration;
+
+/**
+ * Bounded FIFO of packets waiting for the MAC layer, backed by a ring
+ * buffer. When a packet arrives at a full queue, either the new packet or
+ * the oldest queued packet is dropped according to the drop policy.
+ */
+public class PacketQueue {
+
+	private Packet[] buffer;
+	private int head = 0;
+	private int size = 0;
+	private int dropPolicy;
+
+	/* occupancy and drop counters */
+	private long arrivals = 0;
+	private long enqueued = 0;
+	private long dropped = 0;
+	private int maxOccupancy = 0;
+	private long occupancySum = 0;
+
+	public PacketQueue() {
+		this(MacConfiguration.queueSize, MacConfiguration.dropPolicy);
+	}
+
+	public PacketQueue(int capacity, int dropPolicy) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Queue capacity must be at least 1");
+
+		this.buffer = new Packet[capacity];
+		this.dropPolicy = dropPolicy;
+	}
+
+	/**
+	 * @return false if the given packet is dropped
+	 */
+	public boolean add(Packet packet) {
+		arrivals++;
+		occupancySum += size;
+
+		if (size == buffer.length) {
+			dropped++;
+
+			if (dropPolicy == MacConfiguration.DROP_NEWEST)
+				return false;
+
+			poll();
+		}
+
+		buffer[(head + size) % buffer.length] = packet;
+		size++;
+		enqueued++;
+
+		if (size > maxOccupancy)
+			maxOccupancy = size;
+
+		return true;
+	}
+
+	public Packet poll() {
+		if (size == 0)
+			return null;
+
+		Packet packet = buffer[head];
+		buffer[head] = null;
+		head = (head + 1) % buffer.length;
+		size--;
+
+		return packet;
+	}
+
+	public Packet peek() {
+		return size == 0 ? null : buffer[head];
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int capacity() {
+		return buffer.length;
+	}
+
+	/**
+	 * @return number of packets given to add(), under DROP_OLDEST an
+	 *         arrival at a full queue is counted both as enqueued and as
+	 *         dropped
+	 */
+	public long getArrivals() {
+		return arrivals;
+	}
+
+	public long getEnqueued() {
+		return enqueued;
+	}
+
+	public long getDropped() {
+		return dropped;
+	}
+
+	public int getMaxOccupancy() {
+		return maxOccupancy;
+	}
+
+	/**
+	 * @return mean number of queued packets seen by arriving packets
+	 */
+	public double getMeanOccupancy() {
+		return arrivals == 0 ? 0.0 : (double) occupancySum / arrivals;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes;
+
+import hardware.transceiver.Packet;
+import sim.topology.Topology;
+
+/**
+ * Determines how packets sent by the MAC layer of a node reach the other
+ * nodes. The radio model of a simulation is selected through
+ * {@link NodeFactory#setRadioModel(RadioModel)}.
+ */
+public abstract class RadioModel {
+
+	/**
+	 * Recomputes the connectivity of the nodes, e.g. after they are created
+	 * or moved.
+	 */
+	public abstract void updateConnectivity(Node[] nodes);
+
+	/**
+	 * Recomputes the connectivity after only the marked nodes moved far
+	 * enough to change their links. Links between two nodes which are not
+	 * marked are kept. By default all links are recomputed.
+	 * 
+	 * @param moved indexed as the node array
+	 */
+	public void updateConnectivity(Node[] nodes, boolean[] moved) {
+		updateConnectivity(nodes);
+	}
+
+	/**
+	 * Computes the connectivity of the nodes just placed by the topology.
+	 * Models may reuse the connectivity computed by earlier runs.
+	 */
+	public void initializeConnectivity(Node[] nodes, Topology topology) {
+		updateConnectivity(nodes);
+	}
+
+	/**
+	 * @return the links of the last connectivity update, indexed as the
+	 *         node array of the update
+	 */
+	public abstract AdjacencyGraph getGraph();
+
+	/**
+	 * @return the distance beyond which two nodes are never linked, used to
+	 *         decide whether moving nodes can change the links. Infinite if
+	 *         any movement may change them.
+	 */
+	public double getLinkRange() {
+		return Double.POSITIVE_INFINITY;
+	}
+
+	public abstract void transmit(Node source, Packet packet);
+
+	public abstract boolean isChannelClear(Node node);
+
+	/**
+	 * @return the index of the node in the node array, nodes created by
+	 *         {@link NodeFactory} have the index ID-1
+	 */
+	static int indexOf(Node[] nodes, Node node) {
+		int index = node.getID() - 1;
+		if (index >= 0 && index < nodes.length && nodes[index] == node)
+			return index;
+
+		for (int i = 0; i < nodes.length; i++) {
+			if (nodes[i] == node)
+				return i;
+		}
+
+		throw new IllegalArgumentException("Node " + node.getID()
+				+ " is not part of the radio model");
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes;
+
+import hardware.transceiver.Packet;
+import hardware.transceiver.RadioSignal;
+
+import java.util.IdentityHashMap;
+
+import core.Parallel;
+import sim.configuration.ConnectivityConfiguration;
+import sim.topology.Topology;
+
+/**
+ * The full radio model: signals are attenuated by static and dynamic fading
+ * and every transceiver keeps track of its noise to decide on reception,
+ * corruption and clear channel assessment.
+ */
+public class SignalRadioModel extends RadioModel {
+
+	private Node[] nodes = null;
+	private AdjacencyGraph graph = null;
+
+	/**
+	 * The channels are updated in parallel, each one draws its fadings from
+	 * its own stream.
+	 */
+	@Override
+	public void updateConnectivity(final Node[] nodes) {
+		RadioSignal.getPathLoss(1.0); // builds the path loss table before the threads use it
+
+		Parallel.forChunks(nodes.length, new Parallel.Body() {
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					nodes[i].getChannel().updateChannel(nodes);
+				}
+			}
+		});
+
+		this.nodes = nodes;
+		graph = null;
+	}
+
+	/**
+	 * The channels of the moved nodes are computed again, the other channels
+	 * only recompute their links to the moved nodes. This costs O(N*M)
+	 * instead of O(N^2) for M moved nodes.
+	 */
+	@Override
+	public void updateConnectivity(final Node[] nodes, final boolean[] moved) {
+		int numMoved = 0;
+		for (int i = 0; i < nodes.length; i++) {
+			if (moved[i])
+				numMoved++;
+		}
+		
+		final int[] movedIndices = new int[numMoved];
+		numMoved = 0;
+		for (int i = 0; i < nodes.length; i++) {
+			if (moved[i])
+				movedIndices[numMoved++] = i;
+		}
+		
+		RadioSignal.getPathLoss(1.0); // builds the path loss table before the threads use it
+
+		Parallel.forChunks(nodes.length, new Parallel.Body() {
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					if (moved[i])
+						nodes[i].getChannel().updateChannel(nodes);
+					else
+						nodes[i].getChannel().updateLinks(nodes, moved, movedIndices);
+				}
+			}
+		});
+
+		this.nodes = nodes;
+		graph = null;
+	}
+
+	/**
+	 * Takes the links from the {@link ConnectivityCache} if a cache
+	 * directory is configured.
+	 */
+	@Override
+	public void initializeConnectivity(Node[] nodes, Topology topology) {
+		if (ConnectivityConfiguration.cacheDirectory == null) {
+			updateConnectivity(nodes);
+			return;
+		}
+
+		AdjacencyGraph cached = ConnectivityCache.getGraph(topology, nodes);
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i].getChannel().setLinks(nodes, cached, i);
+		}
+
+		this.nodes = nodes;
+		graph = cached;
+	}
+
+	/**
+	 * The graph of the channel links is built on demand.
+	 */
+	@Override
+	public AdjacencyGraph getGraph() {
+		if (graph == null && nodes != null) {
+			IdentityHashMap<Node, Integer> index = new IdentityHashMap<Node, Integer>();
+			int numEdges = 0;
+
+			for (int i = 0; i < nodes.length; i++) {
+				index.put(nodes[i], i);
+				numEdges += nodes[i].getChannel().getNeighbors().length;
+			}
+
+			int[] offsets = new int[nodes.length + 1];
+			int[] targets = new int[numEdges];
+			int k = 0;
+
+			for (int i = 0; i < nodes.length; i++) {
+				Node[] neighbors = nodes[i].getChannel().getNeighbors();
+				for (int j = 0; j < neighbors.length; j++) {
+					targets[k++] = index.get(neighbors[j]);
+				}
+				offsets[i + 1] = k;
+			}
+
+			graph = new AdjacencyGraph(offsets, targets);
+		}
+
+		return graph;
+	}
+
+	@Override
+	public void transmit(Node source, Packet packet) {
+		source.getChannel().transmitSignal(packet);
+	}
+
+	@Override
+	public boolean isChannelClear(Node node) {
+		return node.getTransceiver().CCA();
+	}
+}
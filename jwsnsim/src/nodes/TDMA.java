@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes;
+
+import hardware.transceiver.Packet;
+import sim.configuration.MacConfiguration;
+import core.SimulationEvent;
+import core.SimulationEventObserver;
+import core.Simulator;
+
+/**
+ * Collision free MAC layer. Simulation time is divided into frames of
+ * slots and every node owns a single slot of each frame. Slots come from a
+ * distance-2 coloring of the connectivity graph, hence nodes which share a
+ * neighbor never transmit in the same slot. A packet is transmitted at the
+ * beginning of the next slot of its node without carrier sensing, which
+ * costs exactly one simulation event per transmission.
+ */
+public class TDMA extends MacLayer implements SimulationEventObserver {
+
+	private int slot = 0;
+	private int numSlots = 1;
+
+	protected Packet sendingPacket = null;
+	private SimulationEvent event = new SimulationEvent(this);
+
+	public TDMA(Channel channel) {
+		super(channel);
+	}
+
+	/**
+	 * Assigns the slots of the TDMA nodes from a greedy distance-2 coloring
+	 * of the given connectivity graph, whose node indices are the indices
+	 * of the node array.
+	 * 
+	 * @return the number of slots in a frame
+	 */
+	public static int assignSlots(Node[] nodes, AdjacencyGraph graph) {
+		int[] colors = graph.undirected().colorDistance2();
+		int numColors = 0;
+
+		for (int i = 0; i < colors.length; i++) {
+			numColors = Math.max(numColors, colors[i] + 1);
+		}
+
+		for (int i = 0; i < nodes.length; i++) {
+			if (nodes[i].getMAC() instanceof TDMA)
+				((TDMA) nodes[i].getMAC()).setSlot(colors[i], numColors);
+		}
+
+		return numColors;
+	}
+
+	public void setSlot(int slot, int numSlots) {
+		this.slot = slot;
+		this.numSlots = numSlots;
+	}
+
+	@Override
+	public boolean sendPacket(Packet packet) {
+		if (sendingPacket != null)
+			return queue.add(packet);
+
+		sendingPacket = packet;
+		event.register(ticksToNextSlot());
+		return true;
+	}
+
+	@Override
+	public void signal(SimulationEvent event) {
+		channel.transmit(sendingPacket);
+
+		sendingPacket = queue.poll();
+		if (sendingPacket != null)
+			event.register(getFrameLength());
+	}
+
+	/**
+	 * @return 0 at the very beginning of the slot of this node, otherwise
+	 *         the ticks until its next beginning
+	 */
+	private int ticksToNextSlot() {
+		long frame = getFrameLength();
+		long now = Simulator.getInstance().getTime().getTimeHigh();
+		long offset = (long) slot * MacConfiguration.slotLength;
+
+		long sinceSlot = ((now - offset) % frame + frame) % frame;
+
+		return sinceSlot == 0 ? 0 : (int) (frame - sinceSlot);
+	}
+
+	public int getFrameLength() {
+		return numSlots * MacConfiguration.slotLength;
+	}
+
+	public int getSlot() {
+		return slot;
+	}
+}
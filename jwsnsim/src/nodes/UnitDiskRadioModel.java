@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes;
+
+import hardware.transceiver.Packet;
+import hardware.transceiver.Transceiver;
+
+import java.util.Random;
+
+import sim.configuration.TransmissionConfiguration;
+import sim.statistics.RandomStreams;
+import core.SimulationEvent;
+import core.SimulationEventObserver;
+
+/**
+ * Lightweight radio model for protocol scaling studies. A packet reaches
+ * every node within {@link TransmissionConfiguration#MAX_RANGE} of the
+ * sender after the transmission time of the transceiver, unless it is lost
+ * with the given probability. There is no fading, noise or collision and
+ * the channel is always clear, hence a transmission costs a single
+ * simulation event.
+ * 
+ * Nodes are identified by their index in the array given to
+ * {@link #updateConnectivity(Node[])}; nodes created by {@link NodeFactory}
+ * have the index ID-1.
+ */
+public class UnitDiskRadioModel extends RadioModel {
+
+	private double lossProbability = 0.0;
+	private Random random = RandomStreams.create(RandomStreams.SIMULATION, RandomStreams.RADIO);
+
+	private Node[] nodes = null;
+	private AdjacencyGraph graph = null;
+
+	public UnitDiskRadioModel() {
+	}
+
+	/**
+	 * @param lossProbability
+	 *            probability that a packet is lost on a link
+	 */
+	public UnitDiskRadioModel(double lossProbability) {
+		this.lossProbability = lossProbability;
+	}
+
+	@Override
+	public void updateConnectivity(Node[] nodes) {
+		this.nodes = nodes;
+		graph = AdjacencyGraph.unitDisk(nodes, TransmissionConfiguration.MAX_RANGE);
+	}
+
+	@Override
+	public double getLinkRange() {
+		return TransmissionConfiguration.MAX_RANGE;
+	}
+
+	@Override
+	public void transmit(Node source, Packet packet) {
+		int index = indexOf(nodes, source);
+		int degree = graph.getDegree(index);
+
+		source.getTransceiver().stampTransmission(packet);
+
+		Node[] receivers = new Node[degree];
+		Packet[] packets = new Packet[degree];
+		int numReceivers = 0;
+
+		for (int k = 0; k < degree; k++) {
+			if (lossProbability > 0.0 && random.nextDouble() < lossProbability)
+				continue;
+
+			Node receiver = nodes[graph.getNeighbor(index, k)];
+			Packet received = new Packet(packet);
+			receiver.getTransceiver().stampReception(received);
+
+			receivers[numReceivers] = receiver;
+			packets[numReceivers++] = received;
+		}
+
+		new Delivery(receivers, packets, numReceivers).register(Transceiver
+				.getTransmissionTime());
+	}
+
+	@Override
+	public boolean isChannelClear(Node node) {
+		return true;
+	}
+
+	@Override
+	public AdjacencyGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Delivers the packets of a single transmission when it ends.
+	 */
+	private static class Delivery implements SimulationEventObserver {
+		private Node[] receivers;
+		private Packet[] packets;
+		private int numReceivers;
+		private SimulationEvent event = new SimulationEvent(this);
+
+		Delivery(Node[] receivers, Packet[] packets, int numReceivers) {
+			this.receivers = receivers;
+			this.packets = packets;
+			this.numReceivers = numReceivers;
+		}
+
+		void register(int ticks) {
+			event.register(ticks);
+		}
+
+		@Override
+		public void signal(SimulationEvent event) {
+			for (int i = 0; i < numReceivers; i++) {
+				receivers[i].getTransceiver().deliver(packets[i]);
+			}
+		}
+	}
+}
@@ -39,35 +39,261 @@ import hardware.clock.Timer;
 import hardware.clock.TimerHandler;
 
 import java.lang.reflect.Constructor;
+import java.util.Arrays;
 
+import core.Parallel;
+import core.SimulationEvent;
+import core.SimulationEventObserver;
+import core.Simulator;
+
+import nodes.AdjacencyGraph;
+import nodes.Node;
 import nodes.NodeFactory;
 import nodes.Position;
+import sim.configuration.MobilityConfiguration;
 
-public class MobilityManager implements TimerHandler {
+/**
+ * Moves the nodes with their mobility models. Without
+ * {@link MobilityConfiguration#eventDriven} all nodes are moved once per
+ * round and the connectivity is updated after each round.
+ * 
+ * In the event driven mode the nodes move along the segments of their
+ * models. The manager keeps the nodes in a heap ordered by the time of
+ * their next segment change and registers a single simulation event for
+ * the earliest one. After each connectivity update every node gets a
+ * margin: as long as each node has travelled less than its margin, no pair
+ * of nodes can have crossed the link range of the radio model. Links are
+ * updated only when a node exceeds its margin, at most once per
+ * {@link MobilityConfiguration#minUpdateInterval}. Node positions are
+ * refreshed at these updates and at segment changes, the current position
+ * of a node can be computed with {@link #getPosition(int, Position)}.
+ */
+public class MobilityManager implements TimerHandler, SimulationEventObserver {
 	protected Clock32 clock = new Clock32();
 	protected Timer timer = new Timer(clock,this);
 	protected MobilityModel[] models = null;
 	
+	protected SimulationEvent event = new SimulationEvent(this);
+	private NodeHeap heap;
+	private double[] margins; // distance a node may travel until links may change
+	private double[] travelled; // distance travelled since the last connectivity update
+	private double[] accountTime; // time up to which travelled is accounted
+	private boolean[] moved; // nodes past their margin at the last connectivity update
+	private double lastUpdate = 0;
+	private boolean dirty = false;
+	private int numUpdates = 0;
+	private boolean marginsComputed = false;
+	private int marginBackoff = 1;
+	private int marginSkips = 0; // updates until margins are computed again
+	
 	public MobilityManager(String mobilityClassName) {
-		clock.start();
-		timer.startPeriodic(1000000);	
-		
 		models = new MobilityModel[NodeFactory.numNodes];
 		for (int i = 0; i < NodeFactory.numNodes; i++) {
 			models[i] = createModel(mobilityClassName);
-		}		
+		}
+		
+		if (!MobilityConfiguration.eventDriven) {
+			clock.start();
+			timer.startPeriodic(MobilityConfiguration.roundLength);
+			return;
+		}
+		
+		int n = NodeFactory.numNodes;
+		heap = new NodeHeap(n);
+		margins = new double[n];
+		travelled = new double[n];
+		accountTime = new double[n];
+		moved = new boolean[n];
+		
+		double now = now();
+		for (int i = 0; i < n; i++) {
+			models[i].nextSegment(NodeFactory.nodes[i], now);
+			accountTime[i] = now;
+		}
+		
+		lastUpdate = now;
+		updateMargins(false);
+		for (int i = 0; i < n; i++) {
+			heap.add(i, nextTime(i, now));
+		}
+		schedule(now);
 	}
 	
 	@Override
 	public void fireEvent(Timer timer) {
-		for (int i = 0; i < NodeFactory.numNodes; i++) {
-			Position pos = models[i].getNextPos(NodeFactory.nodes[i]);
-			NodeFactory.nodes[i].setPosition(pos);
+		Parallel.forChunks(NodeFactory.numNodes, new Parallel.Body() {
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					Position pos = models[i].getNextPos(NodeFactory.nodes[i]);
+					NodeFactory.nodes[i].setPosition(pos);
+				}
+			}
+		});
+		
+		NodeFactory.updateConnectivity();
+		numUpdates++;
+	}
+	
+	@Override
+	public void signal(SimulationEvent event) {
+		double now = now();
+		
+		while (!heap.isEmpty() && heap.peekTime() <= now) {
+			int i = heap.poll();
+			Node node = NodeFactory.nodes[i];
+			
+			account(i, now);
+			if (models[i].getSegmentEndTime() <= now) {
+				models[i].getPosition(now, node.getPosition());
+				models[i].nextSegment(node, now);
+			}
+			
+			if (travelled[i] > 0 && travelled[i] >= margins[i])
+				dirty = true;
+			
+			heap.add(i, nextTime(i, now));
 		}
 		
-		for (int i = 0; i < NodeFactory.numNodes; i++) {
-			NodeFactory.nodes[i].getChannel().updateChannel(NodeFactory.nodes);
-		}		
+		if (dirty && now >= lastUpdate + MobilityConfiguration.minUpdateInterval)
+			updateLinks(now);
+		
+		schedule(now);
+	}
+	
+	/**
+	 * Computes the current position of the node with the given index.
+	 */
+	public void getPosition(int index, Position result) {
+		if (MobilityConfiguration.eventDriven)
+			models[index].getPosition(now(), result);
+		else
+			result.set(NodeFactory.nodes[index].getPosition());
+	}
+	
+	/**
+	 * @return the number of connectivity updates caused by mobility
+	 */
+	public int getNumUpdates() {
+		return numUpdates;
+	}
+	
+	private void updateLinks(double now) {
+		int n = NodeFactory.numNodes;
+		
+		for (int i = 0; i < n; i++) {
+			account(i, now);
+			moved[i] = travelled[i] > 0 && travelled[i] >= margins[i];
+			models[i].getPosition(now, NodeFactory.nodes[i].getPosition());
+			travelled[i] = 0;
+		}
+		
+		/* links between nodes within their margins cannot have changed */
+		NodeFactory.updateConnectivity(moved);
+		numUpdates++;
+		
+		/* the margins did not defer this update */
+		boolean useless = marginsComputed
+				&& now <= lastUpdate + MobilityConfiguration.minUpdateInterval + 1;
+		lastUpdate = now;
+		dirty = false;
+		
+		updateMargins(useless);
+		heap.clear();
+		for (int i = 0; i < n; i++) {
+			heap.add(i, nextTime(i, now));
+		}
+	}
+	
+	/**
+	 * Margins are not computed for a number of updates, doubled each time,
+	 * if they did not defer the last update, i.e. if nodes move so much that
+	 * links change anyway. All margins are 0 then and links are updated
+	 * whenever a node moves.
+	 */
+	private void updateMargins(boolean useless) {
+		if (useless) {
+			marginBackoff = Math.min(2 * marginBackoff, 64);
+			marginSkips = marginBackoff;
+		} else if (marginsComputed) {
+			marginBackoff = 1;
+		}
+		
+		if (marginSkips > 0) {
+			marginSkips--;
+			Arrays.fill(margins, 0);
+			marginsComputed = false;
+		} else {
+			computeMargins();
+			marginsComputed = true;
+		}
+	}
+	
+	/**
+	 * The margin of a node is half of the smallest distance between the
+	 * link range and the distance to any node around it, but at most
+	 * {@link MobilityConfiguration#linkMargin} of the range.
+	 */
+	private void computeMargins() {
+		Node[] nodes = NodeFactory.nodes;
+		double range = NodeFactory.getRadioModel().getLinkRange();
+		
+		if (Double.isInfinite(range)) {
+			Arrays.fill(margins, 0);
+			return;
+		}
+		
+		double skin = MobilityConfiguration.linkMargin * range;
+		AdjacencyGraph graph = AdjacencyGraph.unitDisk(nodes, range + 2 * skin);
+		
+		for (int i = 0; i < nodes.length; i++) {
+			double margin = skin;
+			for (int k = 0; k < graph.getDegree(i); k++) {
+				/* only distances closer to the range than twice the margin matter */
+				double square = nodes[i].getDistanceSquare(nodes[graph.getNeighbor(i, k)]);
+				double inner = Math.max(range - 2 * margin, 0);
+				double outer = range + 2 * margin;
+				if (square > inner * inner && square < outer * outer)
+					margin = Math.abs(Math.sqrt(square) - range) / 2;
+			}
+			margins[i] = margin;
+		}
+	}
+	
+	private void account(int i, double now) {
+		travelled[i] += models[i].getSpeed() * (now - accountTime[i]);
+		accountTime[i] = now;
+	}
+	
+	/**
+	 * @return the time of the next segment change of the node or the time
+	 *         at which it exceeds its margin, if that is earlier. Margins
+	 *         exceeded before the next update is allowed are checked when it
+	 *         is allowed, so that they are handled by a single event.
+	 */
+	private double nextTime(int i, double now) {
+		double time = models[i].getSegmentEndTime();
+		double speed = models[i].getSpeed();
+		
+		if (!dirty && speed > 0) {
+			double exceeded = now + Math.max(margins[i] - travelled[i], 0) / speed;
+			exceeded = Math.max(exceeded, lastUpdate + MobilityConfiguration.minUpdateInterval);
+			time = Math.min(time, exceeded);
+		}
+		
+		return Math.max(time, now + 1);
+	}
+	
+	private void schedule(double now) {
+		double wakeUp = heap.isEmpty() ? Double.MAX_VALUE : heap.peekTime();
+		if (dirty)
+			wakeUp = Math.min(wakeUp, lastUpdate + MobilityConfiguration.minUpdateInterval);
+		
+		if (wakeUp < Double.MAX_VALUE)
+			event.register((int) Math.min(Math.ceil(wakeUp - now), Integer.MAX_VALUE));
+	}
+	
+	private static double now() {
+		return Simulator.getInstance().getTime().toDouble();
 	}
 	
 	static MobilityModel createModel(String className){
@@ -36,7 +36,65 @@ package nodes.mobility;
 
 import nodes.Node;
 import nodes.Position;
+import sim.configuration.MobilityConfiguration;
 
+/**
+ * Moves a node either round by round through {@link #getNextPos(Node)} or
+ * along straight segments, see {@link #nextSegment(Node, double)}. By
+ * default a segment is one round of {@link #getNextPos(Node)}, models with
+ * longer segments override {@link #nextSegment(Node, double)}.
+ */
 public abstract class MobilityModel {
+		protected Position segmentStart = new Position();
+		protected Position segmentEnd = new Position();
+		protected double segmentStartTime = 0;
+		protected double segmentEndTime = 0;
+	
+		/**
+		 * Moves the node by one round. The returned position may be reused
+		 * by the model in the next round, and models are moved in parallel,
+		 * so a model must only use its own state and random stream.
+		 */
 		public abstract Position getNextPos(Node n); 
+		
+		/**
+		 * Starts the next segment of the node at the given simulation time,
+		 * the node is at the end of the previous segment.
+		 */
+		public void nextSegment(Node n, double time) {
+			segmentStart.set(n.getPosition());
+			segmentEnd.set(getNextPos(n));
+			setSegment(time, time + MobilityConfiguration.roundLength);
+		}
+		
+		protected void setSegment(double startTime, double endTime) {
+			segmentStartTime = startTime;
+			segmentEndTime = Math.max(endTime, startTime + 1);
+		}
+		
+		/**
+		 * @return the simulation time at which the current segment ends
+		 */
+		public double getSegmentEndTime() {
+			return segmentEndTime;
+		}
+		
+		/**
+		 * Computes the position at the given time of the current segment.
+		 */
+		public void getPosition(double time, Position result) {
+			double t = (time - segmentStartTime) / (segmentEndTime - segmentStartTime);
+			t = Math.max(0.0, Math.min(1.0, t));
+			
+			result.xCoord = segmentStart.xCoord + t * (segmentEnd.xCoord - segmentStart.xCoord);
+			result.yCoord = segmentStart.yCoord + t * (segmentEnd.yCoord - segmentStart.yCoord);
+			result.zCoord = segmentStart.zCoord + t * (segmentEnd.zCoord - segmentStart.zCoord);
+		}
+		
+		/**
+		 * @return the distance moved per tick on the current segment
+		 */
+		public double getSpeed() {
+			return segmentStart.distanceTo(segmentEnd) / (segmentEndTime - segmentStartTime);
+		}
 }
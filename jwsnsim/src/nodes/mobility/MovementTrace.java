@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes.mobility;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read access to a binary movement trace. The file starts with a header of
+ * {@link #HEADER_SIZE} bytes: the int {@link #MAGIC}, the number of nodes
+ * as an int and the number of records as a long. It is followed by the
+ * index of the first record of each node as longs, padded to a multiple of
+ * the record size, and by the records sorted by time. A record consists of
+ * the time in simulation ticks (long), the node ID (int), the coordinates
+ * (3 floats) and the index of the next record of the same node or -1
+ * (long), i.e. each node can follow its own records without scanning the
+ * records of the other nodes.
+ * 
+ * The records are mapped lazily in windows of {@link #WINDOW_SIZE} bytes,
+ * at most {@link #MAX_WINDOWS} windows are kept, so traces larger than the
+ * heap can be replayed. Traces are written by {@link TraceConverter}.
+ */
+public class MovementTrace {
+
+	public static final int MAGIC = 0x4a575354; // "JWST"
+	public static final int HEADER_SIZE = 16;
+	public static final int RECORD_SIZE = 32;
+
+	static final int WINDOW_SHIFT = 26;
+	static final long WINDOW_SIZE = 1L << WINDOW_SHIFT;
+	static final int MAX_WINDOWS = 8;
+
+	private static Map<String, MovementTrace> traces = new HashMap<String, MovementTrace>();
+
+	private RandomAccessFile file;
+	private FileChannel channel;
+	private FileChannel.MapMode mode;
+	private int numNodes;
+	private long numRecords;
+	private long recordsOffset;
+
+	private MappedByteBuffer[] windows;
+	private long[] windowIndices;
+	private long[] windowUses;
+	private long uses = 0;
+
+	/**
+	 * A record of the trace.
+	 */
+	public static class Sample {
+		public long time;
+		public int node;
+		public float x, y, z;
+		public long next;
+	}
+
+	/**
+	 * Returns the trace of the given file, all models replaying the same
+	 * file share it.
+	 */
+	public static synchronized MovementTrace open(String fileName) throws IOException {
+		MovementTrace trace = traces.get(fileName);
+
+		if (trace == null) {
+			trace = new MovementTrace(new File(fileName), false);
+			traces.put(fileName, trace);
+		}
+
+		return trace;
+	}
+
+	MovementTrace(File file, boolean writable) throws IOException {
+		this.file = new RandomAccessFile(file, writable ? "rw" : "r");
+		channel = this.file.getChannel();
+		mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+
+		windows = new MappedByteBuffer[MAX_WINDOWS];
+		windowIndices = new long[MAX_WINDOWS];
+		windowUses = new long[MAX_WINDOWS];
+		for (int i = 0; i < MAX_WINDOWS; i++)
+			windowIndices[i] = -1;
+
+		if (!writable)
+			readHeader(file.getPath());
+	}
+
+	private void readHeader(String fileName) throws IOException {
+		MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+				Math.min(channel.size(), HEADER_SIZE));
+		if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC)
+			throw new IOException(fileName + " is not a movement trace");
+
+		numNodes = header.getInt();
+		numRecords = header.getLong();
+		recordsOffset = getRecordsOffset(numNodes);
+
+		if (channel.size() != recordsOffset + numRecords * RECORD_SIZE)
+			throw new IOException(fileName + " is truncated");
+	}
+
+	/**
+	 * @return the file offset of the first record, records never span two
+	 *         windows
+	 */
+	static long getRecordsOffset(int numNodes) {
+		long size = HEADER_SIZE + 8L * numNodes;
+		return (size + RECORD_SIZE - 1) / RECORD_SIZE * RECORD_SIZE;
+	}
+
+	public int getNumNodes() {
+		return numNodes;
+	}
+
+	public long getNumRecords() {
+		return numRecords;
+	}
+
+	/**
+	 * @return the index of the first record of the node with the given ID
+	 *         or -1 if it has none
+	 */
+	public synchronized long getFirstRecord(int node) throws IOException {
+		if (node < 1 || node > numNodes)
+			return -1;
+
+		long offset = HEADER_SIZE + 8L * (node - 1);
+		return window(offset).getLong((int) (offset & (WINDOW_SIZE - 1)));
+	}
+
+	/**
+	 * Reads the record with the given index into the sample.
+	 */
+	public synchronized void read(long record, Sample sample) throws IOException {
+		long offset = recordsOffset + record * RECORD_SIZE;
+		MappedByteBuffer buffer = window(offset);
+		int position = (int) (offset & (WINDOW_SIZE - 1));
+
+		sample.time = buffer.getLong(position);
+		sample.node = buffer.getInt(position + 8);
+		sample.x = buffer.getFloat(position + 12);
+		sample.y = buffer.getFloat(position + 16);
+		sample.z = buffer.getFloat(position + 20);
+		sample.next = buffer.getLong(position + 24);
+	}
+
+	/**
+	 * Returns the window which contains the given offset, the least
+	 * recently used window is dropped if too many are mapped.
+	 */
+	MappedByteBuffer window(long offset) throws IOException {
+		long index = offset >>> WINDOW_SHIFT;
+		int oldest = 0;
+
+		for (int i = 0; i < MAX_WINDOWS; i++) {
+			if (windowIndices[i] == index) {
+				windowUses[i] = ++uses;
+				return windows[i];
+			}
+			if (windowUses[i] < windowUses[oldest])
+				oldest = i;
+		}
+
+		long start = index << WINDOW_SHIFT;
+		long length = Math.min(WINDOW_SIZE, channel.size() - start);
+
+		/* the dropped mapping is released when it is garbage collected */
+		windows[oldest] = channel.map(mode, start, length);
+		windowIndices[oldest] = index;
+		windowUses[oldest] = ++uses;
+
+		return windows[oldest];
+	}
+
+	void close() throws IOException {
+		for (int i = 0; i < MAX_WINDOWS; i++) {
+			if (windows[i] != null && mode == FileChannel.MapMode.READ_WRITE)
+				windows[i].force();
+			windows[i] = null;
+			windowIndices[i] = -1;
+		}
+		file.close();
+	}
+}
@@ -0,0 +1,74 @@
+package nodes.mobility;
+
+/**
+ * Binary min-heap of node indices ordered by a time per node.
+ */
+class NodeHeap {
+	private int[] heap;
+	private double[] times;
+	private int size = 0;
+
+	NodeHeap(int numNodes) {
+		heap = new int[numNodes];
+		times = new double[numNodes];
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	void add(int node, double time) {
+		times[node] = time;
+		int k = size++;
+		heap[k] = node;
+		siftUp(k);
+	}
+
+	/**
+	 * @return the earliest time, the heap must not be empty
+	 */
+	double peekTime() {
+		return times[heap[0]];
+	}
+
+	int poll() {
+		int node = heap[0];
+		heap[0] = heap[--size];
+		siftDown(0);
+		return node;
+	}
+
+	private void siftUp(int k) {
+		int node = heap[k];
+		while (k > 0) {
+			int parent = (k - 1) >>> 1;
+			if (times[heap[parent]] <= times[node])
+				break;
+			heap[k] = heap[parent];
+			k = parent;
+		}
+		heap[k] = node;
+	}
+
+	private void siftDown(int k) {
+		if (size == 0)
+			return;
+
+		int node = heap[k];
+		int half = size >>> 1;
+		while (k < half) {
+			int child = 2 * k + 1;
+			if (child + 1 < size && times[heap[child + 1]] < times[heap[child]])
+				child++;
+			if (times[node] <= times[heap[child]])
+				break;
+			heap[k] = heap[child];
+			k = child;
+		}
+		heap[k] = node;
+	}
+}
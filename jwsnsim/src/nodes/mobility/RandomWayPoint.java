@@ -80,6 +80,7 @@ import sim.configuration.MobilityConfiguration;
 import sim.statistics.Distribution;
 import sim.statistics.GaussianDistribution;
 import sim.statistics.PoissonDistribution;
+import sim.statistics.RandomStreams;
 
 public class RandomWayPoint extends MobilityModel{
 	// we assume that these distributions are the same for all nodes
@@ -87,17 +88,21 @@ public class RandomWayPoint extends MobilityModel{
 	protected static Distribution waitingTimeDistribution;
 
 	private static boolean initialized = false; // a flag set to true after initialization of the static vars of this class has been done.
-	public static Random random = Distribution.getRandom(); // a random generator of the framework 
+	protected Random random = null; // the mobility stream of the node, so models can be moved in parallel
 	
 	protected Position nextDestination = new Position(); // The point where this node is moving to
+	protected Position nextPosition = new Position(); // The position returned by getNextPos, reused in each step
 	protected Position moveVector = new Position(); // The vector that is added in each step to the current position of this node
 	protected int remaining_hops = 0; // the remaining hops until a new path has to be determined
 	protected int remaining_waitingTime = 0;
+	protected boolean moving = false; // the current segment is a movement to nextDestination
 	
 	/* (non-Javadoc)
 	 * @see mobilityModels.MobilityModelInterface#getNextPos(nodes.Node)
 	 */
 	public Position getNextPos(Node n) {
+		if(random == null)
+			random = n.getRandom(RandomStreams.MOBILITY);
 				
 		// execute the waiting loop
 		if(remaining_waitingTime > 0) {
@@ -105,8 +110,6 @@ public class RandomWayPoint extends MobilityModel{
 			return n.getPosition();
 		}
 		
-		Position nextPosition = new Position();
-
 		if(remaining_hops == 0) {
 			// determine the speed at which this node moves
 			double speed = Math.abs(speedDistribution.nextSample(random)); // units per round
@@ -114,7 +117,7 @@ public class RandomWayPoint extends MobilityModel{
 				speed = MobilityConfiguration.speedMean;
 
 			// determine the next point where this node moves to
-			nextDestination = getNextWayPoint();
+			getNextWayPoint(nextDestination);
 			
 			// determine the number of rounds needed to reach the target
 			double dist = nextDestination.distanceTo(n.getPosition());
@@ -149,19 +152,54 @@ public class RandomWayPoint extends MobilityModel{
 		return nextPosition;
 	}
 	
+	/**
+	 * A segment is either the whole way to the next waypoint or the whole
+	 * waiting time after arriving there.
+	 */
+	public void nextSegment(Node n, double time) {
+		if(random == null)
+			random = n.getRandom(RandomStreams.MOBILITY);
+		
+		segmentStart.set(n.getPosition());
+		
+		if(moving) {
+			moving = false;
+			int waitingRounds = (int) Math.ceil(waitingTimeDistribution.nextSample(random));
+			if(waitingRounds > 0) {
+				segmentEnd.set(segmentStart);
+				setSegment(time, time + (double) waitingRounds * MobilityConfiguration.roundLength);
+				return;
+			}
+		}
+		
+		double speed = Math.abs(speedDistribution.nextSample(random)); // units per round
+		if(speed == 0) 
+			speed = MobilityConfiguration.speedMean;
+		
+		getNextWayPoint(nextDestination);
+		segmentEnd.set(nextDestination);
+		
+		double rounds = nextDestination.distanceTo(segmentStart) / speed;
+		setSegment(time, time + rounds * MobilityConfiguration.roundLength);
+		moving = true;
+	}
+	
 	/**
 	 * Determines the next waypoint where this node moves after having waited.
 	 * The position is expected to be within the deployment area.
-	 * @return the next waypoint where this node moves after having waited. 
+	 * @param wayPoint set to the next waypoint where this node moves after having waited. 
 	 */
-	protected Position getNextWayPoint() {
+	protected void getNextWayPoint(Position wayPoint) {
 		double randx = random.nextDouble() * AreaConfiguration.dimX;
 		double randy = random.nextDouble() * AreaConfiguration.dimY;
 		double randz = 0;
 		if(AreaConfiguration.numDimentions == 3) {
 			randz = random.nextDouble() * AreaConfiguration.dimZ;
 		}
-		return new Position(randx,randy,randz);
+		/* integer coordinates, as created by the Position(double, double, double) constructor */
+		wayPoint.xCoord = (int) randx;
+		wayPoint.yCoord = (int) randy;
+		wayPoint.zCoord = (int) randz;
 	}
 	
 	/**
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes.mobility;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Converts a text movement trace into the binary format of
+ * {@link MovementTrace}. Each line holds the time in seconds, the node ID
+ * and 2 or 3 coordinates separated by commas, semicolons or white space,
+ * lines which do not start with a number are skipped. The lines must be
+ * sorted by time. A second is {@link #TICKS_PER_SECOND} ticks unless given
+ * otherwise.
+ * 
+ * Usage: TraceConverter input output [ticksPerSecond]
+ */
+public class TraceConverter {
+
+	/** simulation ticks per second, as in {@link core.Simulator#getSecond()} */
+	public static final double TICKS_PER_SECOND = 1024 * 1024;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: TraceConverter input output [ticksPerSecond]");
+			System.exit(-1);
+		}
+
+		double ticksPerSecond = args.length > 2 ? Double.parseDouble(args[2])
+				: TICKS_PER_SECOND;
+
+		convert(args[0], args[1], ticksPerSecond);
+	}
+
+	public static void convert(String input, String output, double ticksPerSecond) throws IOException {
+		/* the first pass determines the size of the header and of the file */
+		long numRecords = 0;
+		int numNodes = 0;
+		long lastTime = Long.MIN_VALUE;
+		double[] fields = new double[5];
+
+		BufferedReader reader = new BufferedReader(new FileReader(input), 1 << 16);
+		try {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (!parse(line, fields, lineNumber))
+					continue;
+
+				long time = Math.round(fields[0] * ticksPerSecond);
+				if (time < lastTime)
+					throw new IOException("line " + lineNumber + " is not sorted by time");
+				if (fields[1] < 1)
+					throw new IOException("invalid node ID in line " + lineNumber);
+
+				lastTime = time;
+				numNodes = Math.max(numNodes, (int) fields[1]);
+				numRecords++;
+			}
+		} finally {
+			reader.close();
+		}
+
+		long recordsOffset = MovementTrace.getRecordsOffset(numNodes);
+		RandomAccessFile raf = new RandomAccessFile(output, "rw");
+		try {
+			raf.setLength(recordsOffset + numRecords * MovementTrace.RECORD_SIZE);
+		} finally {
+			raf.close();
+		}
+
+		MovementTrace trace = new MovementTrace(new File(output), true);
+		long[] first = new long[numNodes];
+		long[] last = new long[numNodes];
+		Arrays.fill(first, -1);
+		Arrays.fill(last, -1);
+
+		reader = new BufferedReader(new FileReader(input), 1 << 16);
+		try {
+			String line;
+			long record = 0;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (!parse(line, fields, lineNumber))
+					continue;
+
+				int node = (int) fields[1];
+				long offset = recordsOffset + record * MovementTrace.RECORD_SIZE;
+				MappedByteBuffer buffer = trace.window(offset);
+				int position = (int) (offset & (MovementTrace.WINDOW_SIZE - 1));
+
+				buffer.putLong(position, Math.round(fields[0] * ticksPerSecond));
+				buffer.putInt(position + 8, node);
+				buffer.putFloat(position + 12, (float) fields[2]);
+				buffer.putFloat(position + 16, (float) fields[3]);
+				buffer.putFloat(position + 20, (float) fields[4]);
+				buffer.putLong(position + 24, -1);
+
+				/* link the previous record of the node to this one */
+				if (last[node - 1] >= 0) {
+					long previous = recordsOffset + last[node - 1] * MovementTrace.RECORD_SIZE + 24;
+					trace.window(previous).putLong((int) (previous & (MovementTrace.WINDOW_SIZE - 1)), record);
+				} else {
+					first[node - 1] = record;
+				}
+
+				last[node - 1] = record++;
+			}
+		} finally {
+			reader.close();
+		}
+
+		MappedByteBuffer header = trace.window(0);
+		header.putInt(0, MovementTrace.MAGIC);
+		header.putInt(4, numNodes);
+		header.putLong(8, numRecords);
+		for (int i = 0; i < numNodes; i++) {
+			long offset = MovementTrace.HEADER_SIZE + 8L * i;
+			trace.window(offset).putLong((int) (offset & (MovementTrace.WINDOW_SIZE - 1)), first[i]);
+		}
+
+		trace.close();
+
+		System.out.println(numRecords + " records of " + numNodes + " nodes written to " + output);
+	}
+
+	/**
+	 * @return false if the line does not hold a record
+	 */
+	private static boolean parse(String line, double[] fields, int lineNumber) throws IOException {
+		String trimmed = line.trim();
+		if (trimmed.length() == 0 || !isNumberStart(trimmed.charAt(0)))
+			return false;
+
+		String[] tokens = trimmed.split("[,;\\s]+");
+		if (tokens.length < 4 || tokens.length > 5)
+			throw new IOException("invalid record in line " + lineNumber);
+
+		try {
+			for (int i = 0; i < tokens.length; i++)
+				fields[i] = Double.parseDouble(tokens[i]);
+		} catch (NumberFormatException e) {
+			throw new IOException("invalid number in line " + lineNumber);
+		}
+
+		if (tokens.length == 4)
+			fields[4] = 0;
+
+		return true;
+	}
+
+	private static boolean isNumberStart(char c) {
+		return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.';
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package nodes.mobility;
+
+import java.io.IOException;
+
+import core.Simulator;
+
+import nodes.Node;
+import nodes.Position;
+import nodes.mobility.MovementTrace.Sample;
+import sim.configuration.MobilityConfiguration;
+
+/**
+ * Replays the movement of a node from the trace in
+ * {@link MobilityConfiguration#traceFile}. The model follows the records of
+ * its node with a cursor and interpolates linearly between two records. A
+ * node stays at its first recorded position until the time of that record
+ * and at its last one afterwards, nodes without records do not move.
+ */
+public class TraceMobility extends MobilityModel {
+	protected MovementTrace trace;
+	protected Sample previous = new Sample();
+	protected Sample next = new Sample();
+	protected boolean initialized = false;
+	protected boolean hasPrevious = false;
+	protected boolean hasNext = false;
+	protected Position nextPosition = new Position(); // The position returned by getNextPos, reused in each step
+	
+	public TraceMobility() {
+		try {
+			trace = MovementTrace.open(MobilityConfiguration.traceFile);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.out.println("Problem reading movement trace " + MobilityConfiguration.traceFile);
+			System.exit(-1);
+		}
+	}
+	
+	public Position getNextPos(Node n) {
+		double now = Simulator.getInstance().getTime().toDouble();
+		
+		advance(n, now);
+		nextPosition.set(n.getPosition());
+		interpolate(now, nextPosition);
+		
+		return nextPosition;
+	}
+	
+	/**
+	 * A segment lasts until the next record of the node.
+	 */
+	public void nextSegment(Node n, double time) {
+		advance(n, time);
+		
+		segmentStart.set(n.getPosition());
+		interpolate(time, segmentStart);
+		
+		if (hasNext) {
+			segmentEnd.xCoord = next.x;
+			segmentEnd.yCoord = next.y;
+			segmentEnd.zCoord = next.z;
+			if (!hasPrevious)
+				segmentEnd.set(segmentStart);
+			setSegment(time, next.time);
+		} else {
+			segmentEnd.set(segmentStart);
+			setSegment(time, Double.POSITIVE_INFINITY);
+		}
+	}
+	
+	/**
+	 * Moves the cursor to the last record at or before the given time.
+	 */
+	protected void advance(Node n, double time) {
+		try {
+			if (!initialized) {
+				long first = trace.getFirstRecord(n.getID());
+				if (first >= 0) {
+					trace.read(first, next);
+					hasNext = true;
+				}
+				initialized = true;
+			}
+			
+			while (hasNext && next.time <= time) {
+				Sample sample = previous;
+				previous = next;
+				next = sample;
+				hasPrevious = true;
+				
+				hasNext = previous.next >= 0;
+				if (hasNext)
+					trace.read(previous.next, next);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(-1);
+		}
+	}
+	
+	/**
+	 * Sets the position at the given time, which must be between the
+	 * records of the cursor. Nodes without records keep the given position.
+	 */
+	protected void interpolate(double time, Position result) {
+		if (hasPrevious && hasNext) {
+			double t = (time - previous.time) / (double) (next.time - previous.time);
+			result.xCoord = previous.x + t * (next.x - previous.x);
+			result.yCoord = previous.y + t * (next.y - previous.y);
+			result.zCoord = previous.z + t * (next.z - previous.z);
+		} else if (hasPrevious) {
+			result.xCoord = previous.x;
+			result.yCoord = previous.y;
+			result.zCoord = previous.z;
+		} else if (hasNext) {
+			result.xCoord = next.x;
+			result.yCoord = next.y;
+			result.zCoord = next.z;
+		}
+	}
+}
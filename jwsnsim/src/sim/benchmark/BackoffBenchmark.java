@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.benchmark;
+
+import nodes.NodeFactory;
+import sim.configuration.MacConfiguration;
+import sim.statistics.Distribution;
+import sim.statistics.MacStatistics;
+import sim.topology.Grid2D;
+import core.Simulation;
+import core.Simulator;
+
+/**
+ * Counts the simulation events of a 400 node Grid2D network under heavy
+ * beacon load with the uniform CSMA backoff and with binary exponential
+ * backoff.
+ */
+public class BackoffBenchmark extends Simulation {
+
+	private static final int NUM_NODES = 400;
+	private static final int SECONDS = 10;
+	/** every node tries to send once per 8 transmission times */
+	private static final int BEACON_RATE = 8000;
+
+	public BackoffBenchmark() {
+		super(SECONDS);
+	}
+
+	@Override
+	public void exit() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		run("uniform backoff", false, 0);
+		run("exponential backoff", true, 0);
+		run("exponential backoff, 8 retries", true, 8);
+	}
+
+	static void run(String name, boolean exponential, int maxRetries)
+			throws Exception {
+		BeaconNode.BEACON_RATE = BEACON_RATE;
+		MacConfiguration.exponentialBackoff = exponential;
+		MacConfiguration.maxRetries = maxRetries;
+		Distribution.setSeed(0x123456L);
+
+		Simulator.getInstance().reset();
+		NodeFactory.createNodes(BeaconNode.class.getName(), NUM_NODES, new Grid2D());
+		NodeFactory.startNodes();
+
+		long start = System.nanoTime();
+		BackoffBenchmark simulation = new BackoffBenchmark();
+		while (Simulator.getInstance().getSecond() < SECONDS) {
+			Simulator.getInstance().tick();
+		}
+		long events = Simulator.getInstance().getNumEvents();
+		simulation.exit();
+		long elapsed = System.nanoTime() - start;
+
+		System.out.println(String.format("%-32s %10d events %8.0f ms", name,
+				events, elapsed / 1e6));
+		System.out.println("    " + MacStatistics.collect(NodeFactory.nodes));
+	}
+}
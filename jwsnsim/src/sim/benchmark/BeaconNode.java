@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.benchmark;
+
+import hardware.clock.Timer;
+import hardware.clock.TimerHandler;
+import hardware.transceiver.Packet;
+import nodes.Node;
+import nodes.Position;
+import sim.statistics.RandomStreams;
+
+/**
+ * Node which only broadcasts beacons periodically, used to load the
+ * simulated MAC and radio layers in the benchmarks.
+ */
+public class BeaconNode extends Node implements TimerHandler {
+
+	/** beacon period in clock ticks, can be lowered to increase the load */
+	public static int BEACON_RATE = 100000;
+
+	protected Timer timer;
+
+	public BeaconNode(int id, Position position) {
+		super(id, position);
+		timer = new Timer(CLOCK, this);
+	}
+
+	@Override
+	public void on() throws Exception {
+		super.on();
+		timer.startOneshot(1 + getRandom(RandomStreams.APP).nextInt(BEACON_RATE));
+	}
+
+	@Override
+	public void fireEvent(Timer timer) {
+		sendPacket(new Packet(Integer.valueOf(NODE_ID)));
+		timer.startOneshot(BEACON_RATE);
+	}
+
+	@Override
+	public void receivePacket(Packet packet) {
+	}
+}
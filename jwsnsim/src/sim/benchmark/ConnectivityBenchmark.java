@@ -0,0 +1,62 @@
+package sim.benchmark;
+
+import java.io.File;
+
+import nodes.ConnectivityCache;
+import nodes.NodeFactory;
+import nodes.SignalRadioModel;
+import sim.configuration.ConnectivityConfiguration;
+import sim.statistics.Distribution;
+import sim.topology.Grid2D;
+
+/**
+ * Measures the creation of a static grid network with the signal radio
+ * model: without the connectivity cache, when the cache file is written,
+ * when it is read back and when the graph is shared within the process.
+ * 
+ * Usage: ConnectivityBenchmark [numNodes] [cacheDirectory]
+ */
+public class ConnectivityBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int numNodes = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+		File directory = new File(args.length > 1 ? args[1]
+				: System.getProperty("java.io.tmpdir"), "jwsnsim-connectivity");
+
+		Distribution.setSeed(0x123456L);
+		NodeFactory.setRadioModel(new SignalRadioModel());
+
+		ConnectivityConfiguration.cacheDirectory = null;
+		time("channel update", numNodes);
+
+		deleteAll(directory);
+		ConnectivityConfiguration.cacheDirectory = directory.getPath();
+		time("cache miss, file written", numNodes);
+
+		ConnectivityCache.clear();
+		time("cache file mapped", numNodes);
+
+		time("graph shared in process", numNodes);
+
+		System.out.println("links: " + NodeFactory.getRadioModel().getGraph().getNumEdges());
+	}
+
+	static void time(String name, int numNodes) {
+		NodeFactory.nodes = null;
+		System.gc();
+
+		long start = System.nanoTime();
+		NodeFactory.createNodes(BeaconNode.class.getName(), numNodes, new Grid2D());
+		long elapsed = System.nanoTime() - start;
+
+		System.out.println(String.format("%-28s %8d nodes %10.1f ms", name, numNodes, elapsed / 1e6));
+	}
+
+	static void deleteAll(File directory) {
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (int i = 0; i < files.length; i++)
+				files[i].delete();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+import application.Logger;
+import application.trace.TraceWriter;
+
+/**
+ * Measures logging the way SynchronizationSimulation does, one line per
+ * node at every sampling point, with the asynchronous {@link Logger},
+ * uncompressed and compressed, with a BufferedWriter flushed after every
+ * line and with the binary {@link TraceWriter}.
+ * 
+ * Usage: LoggerBenchmark [numNodes] [samples] [directory]
+ */
+public class LoggerBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		int numNodes = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int samples = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		String directory = args.length > 2 ? args[2] : System.getProperty("java.io.tmpdir");
+
+		String[] lines = new String[numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			lines[i] = (i + 1) + " " + (1000000L * i) + " " + (1.0 + i * 1e-6) + " " + i;
+		}
+
+		File flushed = new File(directory, "flushed.log");
+		File async = new File(directory, "async.log");
+		File compressed = new File(directory, "async.log.gz");
+		File index = new File(directory, "async.log.gz.idx");
+		File binary = new File(directory, "binary.trace");
+
+		long start = System.nanoTime();
+		BufferedWriter writer = new BufferedWriter(new FileWriter(flushed));
+		for (int s = 0; s < samples; s++) {
+			for (int i = 0; i < numNodes; i++) {
+				writer.append(lines[i]);
+				writer.newLine();
+				writer.flush();
+			}
+		}
+		writer.close();
+		report("flush per line", numNodes, samples, System.nanoTime() - start);
+
+		start = System.nanoTime();
+		Logger logger = new Logger(async.getPath());
+		for (int s = 0; s < samples; s++) {
+			for (int i = 0; i < numNodes; i++) {
+				logger.log(lines[i]);
+			}
+		}
+		long logged = System.nanoTime() - start;
+		logger.close();
+		report("async logger, log calls", numNodes, samples, logged);
+		report("async logger, with close", numNodes, samples, System.nanoTime() - start);
+
+		start = System.nanoTime();
+		logger = new Logger(compressed.getPath(), true, Deflater.DEFAULT_COMPRESSION);
+		for (int s = 0; s < samples; s++) {
+			for (int i = 0; i < numNodes; i++) {
+				logger.log(lines[i]);
+			}
+		}
+		logger.close();
+		report("compressed async logger", numNodes, samples, System.nanoTime() - start);
+
+		start = System.nanoTime();
+		TraceWriter trace = new TraceWriter(binary.getPath());
+		for (int s = 0; s < samples; s++) {
+			long time = s * 20000000L;
+			for (int i = 0; i < numNodes; i++) {
+				trace.record(time, i + 1, (int) time + i, 1.0f + i * 1e-6f);
+			}
+		}
+		trace.close();
+		report("binary trace", numNodes, samples, System.nanoTime() - start);
+
+		if (flushed.length() != async.length()) {
+			System.out.println("log sizes differ: " + flushed.length() + " " + async.length());
+		}
+		System.out.println("text log " + flushed.length() / 1024 + " KB, compressed log "
+				+ compressed.length() / 1024 + " KB, binary trace " + binary.length() / 1024 + " KB");
+		flushed.delete();
+		async.delete();
+		compressed.delete();
+		index.delete();
+		binary.delete();
+	}
+
+	static void report(String name, int numNodes, int samples, long nanos) {
+		System.out.println(String.format("%-28s %8.1f ms %8.2f Mlines/s", name,
+				nanos / 1e6, (double) numNodes * samples / (nanos / 1e3)));
+	}
+}
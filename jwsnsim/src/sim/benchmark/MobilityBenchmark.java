@@ -0,0 +1,70 @@
+package sim.benchmark;
+
+import nodes.NodeFactory;
+import nodes.RadioModel;
+import nodes.SignalRadioModel;
+import nodes.UnitDiskRadioModel;
+import nodes.mobility.MobilityManager;
+import nodes.mobility.RandomWayPoint;
+import sim.configuration.AreaConfiguration;
+import sim.configuration.MobilityConfiguration;
+import sim.configuration.TransmissionConfiguration;
+import sim.statistics.Distribution;
+import sim.topology.RandomDeployment;
+import core.Parallel;
+import core.Simulator;
+
+/**
+ * Compares the mobility updated once per round with the event driven
+ * mobility for random way point nodes with the unit disk radio model, or
+ * with the signal radio model if the last argument is "signal". Only the
+ * mobility runs, the nodes are not started.
+ * 
+ * Usage: MobilityBenchmark [numNodes] [rounds] [speedMean] [waitingLambda] [numThreads] [signal]
+ */
+public class MobilityBenchmark {
+
+	public static void main(String[] args) {
+		int numNodes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+
+		AreaConfiguration.dimX = 2000;
+		AreaConfiguration.dimY = 2000;
+		MobilityConfiguration.speedMean = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+		MobilityConfiguration.speedVariance = MobilityConfiguration.speedMean / 4;
+		MobilityConfiguration.waitingLambda = args.length > 3 ? Double.parseDouble(args[3]) : 30.0;
+		if (args.length > 4)
+			Parallel.defaultThreads = Integer.parseInt(args[4]);
+		boolean signal = args.length > 5 && args[5].equals("signal");
+
+		run("per round", false, signal, numNodes, rounds);
+		run("event driven", true, signal, numNodes, rounds);
+	}
+
+	static void run(String name, boolean eventDriven, boolean signal, int numNodes, int rounds) {
+		MobilityConfiguration.eventDriven = eventDriven;
+		Distribution.setSeed(0x123456L);
+		Simulator.getInstance().reset();
+
+		RadioModel model = signal ? new SignalRadioModel() : new UnitDiskRadioModel();
+		NodeFactory.setRadioModel(model);
+		NodeFactory.createNodes(BeaconNode.class.getName(), numNodes, new RandomDeployment());
+		TransmissionConfiguration.MAX_RANGE = 60;
+		NodeFactory.updateConnectivity();
+
+		long start = System.nanoTime();
+		MobilityManager manager = new MobilityManager(RandomWayPoint.class.getName());
+		double end = (double) rounds * MobilityConfiguration.roundLength;
+		while (Simulator.getInstance().getTime().toDouble() < end) {
+			long events = Simulator.getInstance().getNumEvents();
+			Simulator.getInstance().tick();
+			if (Simulator.getInstance().getNumEvents() == events)
+				break;
+		}
+		long elapsed = System.nanoTime() - start;
+
+		System.out.println(String.format("%-14s %6d nodes %5d rounds %8d events %6d link updates %9.1f ms",
+				name, numNodes, rounds, Simulator.getInstance().getNumEvents(),
+				manager.getNumUpdates(), elapsed / 1e6));
+	}
+}
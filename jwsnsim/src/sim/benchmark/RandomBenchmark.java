@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.benchmark;
+
+import java.util.Random;
+
+import sim.statistics.PhiloxRandom;
+import sim.statistics.PoissonDistribution;
+import sim.statistics.XoroshiroRandom;
+import sim.statistics.Ziggurat;
+
+/**
+ * Compares the throughput of the fast samplers in sim.statistics against
+ * java.util.Random, both on a single thread and with several threads which
+ * either share one java.util.Random or use their own split streams. The
+ * counter-based generator is also measured for regenerating a single draw,
+ * which java.util.Random can only do by replaying its stream.
+ */
+public class RandomBenchmark {
+
+	private static final int SAMPLES = 10000000;
+	private static final int ROUNDS = 5;
+	/** index of the regenerated draw in the random access comparison */
+	private static final int DRAW = 1000;
+
+	/** prevents the JIT from removing the sampling loops */
+	static volatile double sink;
+
+	interface Sampler {
+		double sample();
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		final Random random = new Random(0x123456L);
+		final XoroshiroRandom xoroshiro = new XoroshiroRandom(0x123456L);
+		final PhiloxRandom philox = new PhiloxRandom(0x123456L);
+		final PoissonDistribution poisson = new PoissonDistribution(50.0);
+
+		run("java.util.Random.nextGaussian", new Sampler() {
+			public double sample() {
+				return random.nextGaussian();
+			}
+		});
+		run("XoroshiroRandom ziggurat gaussian", new Sampler() {
+			public double sample() {
+				return xoroshiro.nextGaussian();
+			}
+		});
+		run("PhiloxRandom ziggurat gaussian", new Sampler() {
+			public double sample() {
+				return philox.nextGaussian();
+			}
+		});
+		run("java.util.Random.nextDouble", new Sampler() {
+			public double sample() {
+				return random.nextDouble();
+			}
+		});
+		run("XoroshiroRandom.nextDouble", new Sampler() {
+			public double sample() {
+				return xoroshiro.nextDouble();
+			}
+		});
+		run("PhiloxRandom.nextDouble", new Sampler() {
+			public double sample() {
+				return philox.nextDouble();
+			}
+		});
+		run("java.util.Random replay to draw " + DRAW, SAMPLES / DRAW, new Sampler() {
+			int counter = 0;
+
+			public double sample() {
+				random.setSeed(counter++);
+				for (int i = 0; i < DRAW; i++)
+					random.nextDouble();
+				return random.nextDouble();
+			}
+		});
+		run("PhiloxRandom setCounter to draw " + DRAW, SAMPLES / DRAW, new Sampler() {
+			int counter = 0;
+
+			public double sample() {
+				philox.setCounter(counter++ * (long) DRAW + DRAW);
+				return philox.nextDouble();
+			}
+		});
+		run("java.util.Random -log(u) exponential", new Sampler() {
+			public double sample() {
+				return -Math.log(1.0 - random.nextDouble());
+			}
+		});
+		run("XoroshiroRandom ziggurat exponential", new Sampler() {
+			public double sample() {
+				return Ziggurat.nextExponential(xoroshiro);
+			}
+		});
+		run("Poisson(50) multiplication, java.util.Random", new Sampler() {
+			public double sample() {
+				double expLambda = Math.exp(-50.0);
+				double product = 1;
+				int result = -1;
+				while (product >= expLambda) {
+					product *= random.nextDouble();
+					result++;
+				}
+				return result;
+			}
+		});
+		run("Poisson(50) PTRS, XoroshiroRandom", new Sampler() {
+			public double sample() {
+				return poisson.nextSample(xoroshiro);
+			}
+		});
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		runParallel("shared java.util.Random gaussian", threads, true);
+		runParallel("split XoroshiroRandom gaussian", threads, false);
+	}
+
+	static void run(String name, Sampler sampler) {
+		run(name, SAMPLES, sampler);
+	}
+
+	static void run(String name, int samples, Sampler sampler) {
+		double best = Double.MAX_VALUE;
+
+		for (int round = 0; round < ROUNDS; round++) {
+			double sum = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < samples; i++) {
+				sum += sampler.sample();
+			}
+			long elapsed = System.nanoTime() - start;
+			sink = sum;
+			best = Math.min(best, elapsed);
+		}
+
+		report(name, samples, best);
+	}
+
+	static void runParallel(String name, int numThreads, final boolean shared)
+			throws InterruptedException {
+		final Random sharedRandom = new Random(0x123456L);
+		final XoroshiroRandom root = new XoroshiroRandom(0x123456L);
+		final int samplesPerThread = SAMPLES / numThreads;
+		double best = Double.MAX_VALUE;
+
+		for (int round = 0; round < ROUNDS; round++) {
+			Thread[] workers = new Thread[numThreads];
+
+			for (int t = 0; t < numThreads; t++) {
+				final Random r = shared ? sharedRandom : root.split();
+				workers[t] = new Thread() {
+					public void run() {
+						double sum = 0;
+						for (int i = 0; i < samplesPerThread; i++) {
+							sum += r.nextGaussian();
+						}
+						sink = sum;
+					}
+				};
+			}
+
+			long start = System.nanoTime();
+			for (int t = 0; t < numThreads; t++)
+				workers[t].start();
+			for (int t = 0; t < numThreads; t++)
+				workers[t].join();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+
+		report(name + " (" + numThreads + " threads)", samplesPerThread
+				* numThreads, best);
+	}
+
+	static void report(String name, int samples, double nanos) {
+		System.out.println(String.format("%-50s %8.1f Msamples/s", name,
+				samples / nanos * 1000.0));
+	}
+}
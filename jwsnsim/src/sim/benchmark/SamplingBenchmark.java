@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.benchmark;
+
+import hardware.Register32;
+import nodes.Node;
+import nodes.Position;
+import application.ClockSnapshot;
+import application.trace.TracedNode;
+import core.Parallel;
+
+/**
+ * Measures one sampling point of a synchronization simulation: building
+ * the toString() line of every node, as the logs were written before, and
+ * reading the clocks into a {@link ClockSnapshot} with one and with several
+ * threads before formatting the lines from it. The nodes keep their logical
+ * clock like the synchronization applications, with Register32 arithmetic.
+ * 
+ * Usage: SamplingBenchmark [numNodes] [samples] [numThreads]
+ */
+public class SamplingBenchmark {
+
+	static volatile long sink;
+
+	public static class ClockNode extends BeaconNode implements TracedNode {
+
+		private Register32 value = new Register32();
+		private Register32 updateLocalTime = new Register32();
+		private float rate;
+
+		public ClockNode(int id, Position position) {
+			super(id, position);
+			value = new Register32(id * 1000);
+			rate = id * 1e-6f;
+		}
+
+		public Register32 local2Global() {
+			Register32 local = CLOCK.getValue();
+			int timePassed = local.subtract(updateLocalTime).toInteger();
+			timePassed += (int) (((float) timePassed) * rate);
+
+			return value.add(new Register32(timePassed));
+		}
+
+		public int getLogicalClock() {
+			return local2Global().toInteger();
+		}
+
+		public float getRate() {
+			return rate;
+		}
+
+		public String toString() {
+			String s = "" + 0;
+
+			s += " " + NODE_ID;
+			s += " " + local2Global().toString();
+			s += " " + Float.floatToIntBits(rate);
+
+			return s;
+		}
+	}
+
+	public static void main(String[] args) {
+		int numNodes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int samples = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+		int numThreads = args.length > 2 ? Integer.parseInt(args[2]) : Parallel.defaultThreads;
+
+		Node[] nodes = new Node[numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			nodes[i] = new ClockNode(i + 1, new Position(i % 1000, i / 1000, 0));
+		}
+
+		for (int round = 0; round < 2; round++) {
+			long start = System.nanoTime();
+			for (int s = 0; s < samples; s++) {
+				long length = 0;
+				for (int i = 0; i < numNodes; i++) {
+					length += nodes[i].toString().length();
+				}
+				sink = length;
+			}
+			report("toString", numNodes, samples, System.nanoTime() - start);
+
+			run("snapshot, 1 thread", nodes, samples, 1);
+			run("snapshot, " + numThreads + " threads", nodes, samples, numThreads);
+		}
+	}
+
+	static void run(String name, Node[] nodes, int samples, int numThreads) {
+		ClockSnapshot snapshot = new ClockSnapshot();
+		StringBuilder line = new StringBuilder();
+
+		long start = System.nanoTime();
+		for (int s = 0; s < samples; s++) {
+			snapshot.take(nodes, numThreads);
+			long length = 0;
+			for (int i = 0; i < nodes.length; i++) {
+				line.setLength(0);
+				snapshot.appendLine(i, line);
+				length += line.length();
+			}
+			sink = length;
+		}
+		report(name, nodes.length, samples, System.nanoTime() - start);
+	}
+
+	static void report(String name, int numNodes, int samples, long nanos) {
+		System.out.println(String.format("%-24s %8.2f ms per sample", name,
+				nanos / 1e6 / samples));
+	}
+}
@@ -0,0 +1,83 @@
+package sim.benchmark;
+
+import java.lang.reflect.Constructor;
+
+import nodes.Node;
+import nodes.NodeFactory;
+import nodes.NodeSupplier;
+import nodes.Position;
+import nodes.UnitDiskRadioModel;
+import sim.topology.Grid2D;
+
+/**
+ * Measures the time to create a large network: the former reflective lookup
+ * per node, the cached constructor, a registered supplier and a registered
+ * supplier with parallel construction. The unit disk radio model is used so
+ * that the connectivity, which is timed separately, does not dominate.
+ * 
+ * Usage: StartupBenchmark [numNodes] [numThreads]
+ */
+public class StartupBenchmark {
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws Exception {
+		final int numNodes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		final int numThreads = args.length > 1 ? Integer.parseInt(args[1])
+				: Runtime.getRuntime().availableProcessors();
+		final String className = BeaconNode.class.getName();
+
+		NodeFactory.setRadioModel(new UnitDiskRadioModel());
+
+		for (int round = 0; round < ROUNDS; round++) {
+			boolean last = round == ROUNDS - 1;
+
+			NodeFactory.nodes = null;
+			System.gc();
+
+			long start = System.nanoTime();
+			Node[] nodes = new Node[numNodes];
+			for (int i = 0; i < numNodes; i++) {
+				Constructor<?> cons = Class.forName(className).getConstructor(int.class, Position.class);
+				nodes[i] = (Node) cons.newInstance(i + 1, new Position(i % 1000, i / 1000, 0));
+			}
+			report(last, "reflection per node", numNodes, System.nanoTime() - start);
+			nodes = null;
+
+			time(last, "cached constructor", className, numNodes, 1);
+
+			NodeFactory.registerSupplier(className, new NodeSupplier() {
+				public Node create(int id, Position position) {
+					return new BeaconNode(id, position);
+				}
+			});
+			time(last, "registered supplier", className, numNodes, 1);
+			time(last, "supplier, " + numThreads + " threads", className, numNodes, numThreads);
+
+			/* the next round starts with the reflective path again */
+			NodeFactory.registerSupplier(className, null);
+		}
+	}
+
+	static void time(boolean print, String name, String className, int numNodes, int numThreads) {
+		NodeFactory.nodes = null;
+		System.gc();
+
+		long start = System.nanoTime();
+		NodeFactory.createNodes(className, numNodes, new Grid2D(), numThreads);
+		long total = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		NodeFactory.updateConnectivity();
+		long connectivity = System.nanoTime() - start;
+
+		report(print, name, numNodes, total - connectivity);
+	}
+
+	static void report(boolean print, String name, int numNodes, long nanos) {
+		if (print) {
+			System.out.println(String.format("%-28s %8d nodes %9.1f ms %8.0f ns/node",
+					name, numNodes, nanos / 1e6, (double) nanos / numNodes));
+		}
+	}
+}
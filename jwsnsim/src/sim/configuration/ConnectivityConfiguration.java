@@ -0,0 +1,6 @@
+package sim.configuration;
+
+public class ConnectivityConfiguration {
+	/** directory in which the links of the signal radio model are cached between runs, null disables the cache */
+	static public String cacheDirectory = null;
+}
@@ -0,0 +1,12 @@
+package sim.configuration;
+
+public class ConvergenceConfiguration {
+	/** global skew in clock ticks under which the network is converged, negative disables the monitor */
+	static public long skewBound = -1;
+	
+	/** number of seconds the global skew has to stay under the bound */
+	static public int window = 1000;
+	
+	/** end the run once the network has converged instead of at its duration */
+	static public boolean stopOnConvergence = false;
+}
@@ -0,0 +1,9 @@
+package sim.configuration;
+
+public class InterferenceConfiguration {
+	/** add the aggregated interference of far transmitters to the noise of the receivers */
+	static public boolean farField = false;
+	
+	/** edge length of the square cells in which far transmitters are aggregated */
+	static public double cellSize = 50.0;
+}
@@ -0,0 +1,21 @@
+package sim.configuration;
+
+import java.util.zip.Deflater;
+
+public class LogConfiguration {
+	/** write the logs as gzip blocks with an index of their simulation times */
+	static public boolean compress = false;
+	
+	/** Deflater level of the compressed logs */
+	static public int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	
+	/** log every nodeInterval-th node at every sampling point, 0 logs only the skew metrics, unless a sampling policy is given */
+	static public int nodeInterval = 1;
+	
+	/**
+	 * time series of the global and local skew of every sampling point,
+	 * followed by the reception counters of {@link sim.statistics.RadioStatistics}
+	 * summed over all nodes so far
+	 */
+	static public String skewFile = null;
+}
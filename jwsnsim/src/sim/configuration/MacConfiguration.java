@@ -0,0 +1,30 @@
+package sim.configuration;
+
+public class MacConfiguration {
+	public static final int CSMA = 0;
+	public static final int TDMA = 1;
+	
+	public static final int DROP_NEWEST = 0;
+	public static final int DROP_OLDEST = 1;
+	
+	/** number of packets a node can buffer while its MAC is busy */
+	static public int queueSize = 8;
+	
+	/** which packet is dropped when a packet arrives at a full queue */
+	static public int dropPolicy = DROP_NEWEST;
+	
+	/** the MAC layer of the nodes which are created afterwards */
+	static public int mac = CSMA;
+	
+	/** double the CSMA backoff window after each busy channel assessment */
+	static public boolean exponentialBackoff = false;
+	
+	/** the backoff window stops growing after this many doublings */
+	static public int maxBackoffExponent = 6;
+	
+	/** a packet is dropped after this many busy channel assessments, 0 retries forever */
+	static public int maxRetries = 0;
+	
+	/** length of a TDMA slot in simulation ticks, at least the transmission time */
+	static public int slotLength = 1024;
+}
@@ -4,4 +4,19 @@ public class MobilityConfiguration {
 	static public double speedMean = 0.5;
 	static public double speedVariance = 0.5;
 	static public double waitingLambda = 5.0;	
+	
+	/** length of a mobility round in simulation ticks, speeds and waiting times are given per round */
+	static public int roundLength = 1000000;
+	
+	/** move the nodes along segments and update the links only when they may change, instead of once per round */
+	static public boolean eventDriven = false;
+	
+	/** links farther than this fraction of the link range from the range are not checked for changes */
+	static public double linkMargin = 0.25;
+	
+	/** minimum number of ticks between two connectivity updates of the event driven mobility */
+	static public int minUpdateInterval = 1000000;
+	
+	/** movement trace replayed by the trace mobility model */
+	static public String traceFile = null;
 }
@@ -69,6 +69,8 @@ public abstract class Distribution {
 	 * Returns the singleton random generator object of this simulation. You should only use this
 	 * random number generator in this project to ensure that the simulatoin can be repeated by
 	 * using a fixed seed. (The usage of a fixed seed can be enforced in the XML configuration file.)  
+	 * The draws of an entity depend on the draws of all others though, use the keyed streams of
+	 * {@link RandomStreams} for results which do not depend on the order of events or threads.
 	 *
 	 * @return the singleton random generator object of this simulation
 	 */
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.statistics;
+
+import nodes.CSMA;
+import nodes.Node;
+import nodes.PacketQueue;
+
+/**
+ * Transmit queue counters of the MAC layers of a network.
+ */
+public class MacStatistics {
+
+	public long enqueued = 0;
+	public long dropped = 0;
+	public int maxOccupancy = 0;
+	public double meanOccupancy = 0.0;
+	public long retryDrops = 0;
+	public double busyChannelRatio = 0.0;
+
+	public static MacStatistics collect(Node[] nodes) {
+		MacStatistics statistics = new MacStatistics();
+		double occupancySum = 0.0;
+		long arrivals = 0;
+		double busySum = 0.0;
+		long ccaAttempts = 0;
+
+		for (int i = 0; i < nodes.length; i++) {
+			PacketQueue queue = nodes[i].getMAC().getQueue();
+			long queueArrivals = queue.getArrivals();
+
+			statistics.enqueued += queue.getEnqueued();
+			statistics.dropped += queue.getDropped();
+			statistics.maxOccupancy = Math.max(statistics.maxOccupancy, queue.getMaxOccupancy());
+			occupancySum += queue.getMeanOccupancy() * queueArrivals;
+			arrivals += queueArrivals;
+			
+			if (nodes[i].getMAC() instanceof CSMA) {
+				CSMA csma = (CSMA) nodes[i].getMAC();
+				statistics.retryDrops += csma.getRetryDrops();
+				busySum += csma.getBusyChannelRatio() * csma.getCcaAttempts();
+				ccaAttempts += csma.getCcaAttempts();
+			}
+		}
+
+		if (arrivals > 0)
+			statistics.meanOccupancy = occupancySum / arrivals;
+		if (ccaAttempts > 0)
+			statistics.busyChannelRatio = busySum / ccaAttempts;
+
+		return statistics;
+	}
+
+	public String toString() {
+		return "enqueued " + enqueued + " dropped " + dropped
+				+ " maxOccupancy " + maxOccupancy + " meanOccupancy "
+				+ meanOccupancy + " retryDrops " + retryDrops
+				+ " busyChannelRatio " + busyChannelRatio;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.statistics;
+
+/**
+ * Count, mean, variance, minimum and maximum of a series of values, updated
+ * one value at a time with Welford's method so that no values are stored.
+ */
+public class OnlineStatistics {
+
+	private long count = 0;
+	private double mean = 0.0;
+	/** sum of the squared differences from the mean */
+	private double m2 = 0.0;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	public void add(double x) {
+		count++;
+		double delta = x - mean;
+		mean += delta / count;
+		m2 += delta * (x - mean);
+
+		if (x < min)
+			min = x;
+		if (x > max)
+			max = x;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMean() {
+		return count > 0 ? mean : Double.NaN;
+	}
+
+	/**
+	 * @return the sample variance
+	 */
+	public double getVariance() {
+		return count > 1 ? m2 / (count - 1) : Double.NaN;
+	}
+
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	public double getMin() {
+		return count > 0 ? min : Double.NaN;
+	}
+
+	public double getMax() {
+		return count > 0 ? max : Double.NaN;
+	}
+
+	public String toString() {
+		return "count " + count + " mean " + getMean() + " sd "
+				+ getStandardDeviation() + " min " + getMin() + " max " + getMax();
+	}
+}
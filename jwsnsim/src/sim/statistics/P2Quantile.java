@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Estimates a quantile of a series of values with the P² algorithm of Jain
+ * and Chlamtac, which keeps five markers instead of the values. The markers
+ * are the minimum, the p/2, p and (1+p)/2 quantiles and the maximum, their
+ * heights are adjusted with a piecewise parabolic interpolation.
+ */
+public class P2Quantile {
+
+	private final double p;
+
+	/* heights, positions, desired positions and their increments */
+	private final double[] heights = new double[5];
+	private final int[] positions = new int[5];
+	private final double[] desired = new double[5];
+	private final double[] increments;
+
+	private long count = 0;
+
+	public P2Quantile(double p) {
+		if (p <= 0.0 || p >= 1.0)
+			throw new IllegalArgumentException("the quantile must be in (0, 1)");
+
+		this.p = p;
+		increments = new double[] { 0.0, p / 2, p, (1 + p) / 2, 1.0 };
+	}
+
+	public double getP() {
+		return p;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void add(double x) {
+		if (count < 5) {
+			heights[(int) count++] = x;
+			if (count == 5) {
+				Arrays.sort(heights);
+				for (int i = 0; i < 5; i++)
+					positions[i] = i + 1;
+				desired[0] = 1;
+				desired[1] = 1 + 2 * p;
+				desired[2] = 1 + 4 * p;
+				desired[3] = 3 + 2 * p;
+				desired[4] = 5;
+			}
+			return;
+		}
+
+		/* the cell of x */
+		int k;
+		if (x < heights[0]) {
+			heights[0] = x;
+			k = 0;
+		} else if (x >= heights[4]) {
+			heights[4] = x;
+			k = 3;
+		} else {
+			k = 0;
+			while (x >= heights[k + 1])
+				k++;
+		}
+
+		for (int i = k + 1; i < 5; i++)
+			positions[i]++;
+		for (int i = 0; i < 5; i++)
+			desired[i] += increments[i];
+
+		/* move the middle markers which are off by one or more */
+		for (int i = 1; i <= 3; i++) {
+			double d = desired[i] - positions[i];
+
+			if ((d >= 1 && positions[i + 1] - positions[i] > 1)
+					|| (d <= -1 && positions[i - 1] - positions[i] < -1)) {
+				int s = d >= 0 ? 1 : -1;
+				double height = parabolic(i, s);
+
+				if (heights[i - 1] < height && height < heights[i + 1])
+					heights[i] = height;
+				else
+					heights[i] += s * (heights[i + s] - heights[i]) / (positions[i + s] - positions[i]);
+				positions[i] += s;
+			}
+		}
+
+		count++;
+	}
+
+	private double parabolic(int i, int s) {
+		double below = positions[i] - positions[i - 1];
+		double above = positions[i + 1] - positions[i];
+
+		return heights[i] + s / (double) (positions[i + 1] - positions[i - 1])
+				* ((below + s) * (heights[i + 1] - heights[i]) / above
+				+ (above - s) * (heights[i] - heights[i - 1]) / below);
+	}
+
+	/**
+	 * @return the estimated quantile, exact for less than five values
+	 */
+	public double getQuantile() {
+		if (count == 0)
+			return Double.NaN;
+
+		if (count < 5) {
+			double[] sorted = Arrays.copyOf(heights, (int) count);
+			Arrays.sort(sorted);
+			return sorted[(int) Math.min(count - 1, Math.round(p * (count - 1)))];
+		}
+
+		return heights[2];
+	}
+}
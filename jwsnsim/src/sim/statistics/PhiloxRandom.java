@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.statistics;
+
+import java.util.Random;
+
+/**
+ * Counter-based random number generator Philox4x32-10 (Salmon et al.,
+ * "Parallel random numbers: as easy as 1, 2, 3"). Each block of four ints
+ * is a function of a 64-bit key and a 128-bit counter only, so any draw can
+ * be regenerated without replaying the draws before it. The upper half of
+ * the counter is set by {@link #setCounter(long)}, the lower half counts
+ * the blocks drawn since then. For example, with the key of a link and the
+ * number of the transmission as counter, the fading of the k-th
+ * transmission is always the same, no matter which other draws were made.
+ * 
+ * Instances are not thread safe. Since it extends {@link java.util.Random},
+ * it can be passed to every {@link Distribution#nextSample(Random)}.
+ */
+public class PhiloxRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int M0 = 0xD2511F53;
+	private static final int M1 = 0xCD9E8D57;
+	private static final int W0 = 0x9E3779B9;
+	private static final int W1 = 0xBB67AE85;
+
+	private int key0;
+	private int key1;
+	private long counter;
+	private long block;
+
+	private int[] output = new int[4];
+	private int index = 4;
+
+	public PhiloxRandom(long key) {
+		super(0);
+		setSeed(key);
+	}
+
+	public PhiloxRandom(long key, long counter) {
+		this(key);
+		setCounter(counter);
+	}
+
+	/**
+	 * Sets the key and restarts at counter 0.
+	 */
+	@Override
+	public void setSeed(long key) {
+		key0 = (int) key;
+		key1 = (int) (key >>> 32);
+		setCounter(0);
+	}
+
+	/**
+	 * Moves to the first draw of the given counter.
+	 */
+	public void setCounter(long counter) {
+		this.counter = counter;
+		block = 0;
+		index = 4;
+	}
+
+	public long getCounter() {
+		return counter;
+	}
+
+	/**
+	 * Computes the block of the given key and counter words.
+	 */
+	public static void generate(int key0, int key1, int c0, int c1, int c2, int c3, int[] result) {
+		for (int round = 0; round < 10; round++) {
+			if (round > 0) {
+				key0 += W0;
+				key1 += W1;
+			}
+
+			long product0 = (M0 & 0xffffffffL) * (c0 & 0xffffffffL);
+			long product1 = (M1 & 0xffffffffL) * (c2 & 0xffffffffL);
+
+			int n0 = (int) (product1 >>> 32) ^ c1 ^ key0;
+			int n1 = (int) product1;
+			int n2 = (int) (product0 >>> 32) ^ c3 ^ key1;
+			int n3 = (int) product0;
+
+			c0 = n0;
+			c1 = n1;
+			c2 = n2;
+			c3 = n3;
+		}
+
+		result[0] = c0;
+		result[1] = c1;
+		result[2] = c2;
+		result[3] = c3;
+	}
+
+	@Override
+	public int nextInt() {
+		if (index == 4) {
+			/* the lower counter half is the block, the upper half the counter */
+			generate(key0, key1, (int) block, (int) (block >>> 32), (int) counter,
+					(int) (counter >>> 32), output);
+			block++;
+			index = 0;
+		}
+
+		return output[index++];
+	}
+
+	@Override
+	protected int next(int bits) {
+		return nextInt() >>> (32 - bits);
+	}
+
+	@Override
+	public long nextLong() {
+		return ((long) nextInt() << 32) | (nextInt() & 0xffffffffL);
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	@Override
+	public float nextFloat() {
+		return (nextInt() >>> 8) * 0x1.0p-24f;
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return nextInt() < 0;
+	}
+
+	@Override
+	public double nextGaussian() {
+		return Ziggurat.nextGaussian(this);
+	}
+
+	public double nextExponential() {
+		return Ziggurat.nextExponential(this);
+	}
+}
@@ -46,14 +46,35 @@ package sim.statistics;
 import java.util.Random;
 
 public class PoissonDistribution extends Distribution{
+	/** below this mean the multiplication method is faster than PTRS */
+	private static final double PTRS_THRESHOLD = 10.0;
+	
+	private double lambda;
 	private double expLambda; // e^-lambda
 	
+	/* constants of the transformed rejection method, only used for large lambda */
+	private double logLambda;
+	private double a;
+	private double b;
+	private double invAlpha;
+	private double vr;
+	
 	/**
 	 * Constructs a new poisson distribution sample generator.
 	 * @param lambda The mean (and also variance) of the distribution.
 	 */
 	public PoissonDistribution(double lambda) {
+		this.lambda = lambda;
 		expLambda = Math.exp(- lambda);
+		
+		if(lambda >= PTRS_THRESHOLD){
+			double sqrtLambda = Math.sqrt(lambda);
+			logLambda = Math.log(lambda);
+			b = 0.931 + 2.53 * sqrtLambda;
+			a = -0.059 + 0.02483 * b;
+			invAlpha = 1.1239 + 1.1328 / (b - 3.4);
+			vr = 0.9277 - 3.6224 / (b - 2);
+		}
 	}
 	
 	@Override
@@ -64,27 +85,14 @@ public class PoissonDistribution extends Distribution{
 	 * @return The next sample of this poisson distribution sample generator casted to a double.
 	 */
 	public double nextSample() {
-		double product = 1;
-		int count =  0;
-		int result = 0;
-		while (product >= expLambda) {
-			product *= randomGenerator.nextDouble();
-			result = count;
-			count++; // keep result one behind
-		}
-		return result;
+		return nextSample(randomGenerator);
 	}
 	
 	public double nextSample(Random r) {
-		double product = 1;
-		int count =  0;
-		int result = 0;
-		while (product >= expLambda) {
-			product *= r.nextDouble();
-			result = count;
-			count++; // keep result one behind
-		}
-		return result;
+		if(lambda >= PTRS_THRESHOLD)
+			return ptrs(r);
+		
+		return multiplication(r, expLambda);
 	}
 	
 	/**
@@ -99,16 +107,68 @@ public class PoissonDistribution extends Distribution{
 	 */
 	public static int nextPoisson(double lambda) {
 		Random r = Distribution.getRandom();
-		double elambda = Math.exp(- lambda);
+		
+		if(lambda >= PTRS_THRESHOLD)
+			return new PoissonDistribution(lambda).ptrs(r);
+		
+		return multiplication(r, Math.exp(- lambda));
+	}
+	
+	/**
+	 * Knuth's multiplication method, takes O(lambda) uniform samples.
+	 */
+	private static int multiplication(Random r, double expLambda) {
 		double product = 1;
 		int count =  0;
 		int result = 0;
-		while (product >= elambda) {
+		while (product >= expLambda) {
 			product *= r.nextDouble();
 			result = count;
 			count++; // keep result one behind
 		}
 		return result;
 	}
-
+	
+	/**
+	 * Transformed rejection with squeeze (PTRS) of Hormann, takes
+	 * approximately 1.1 pairs of uniform samples independent of lambda.
+	 */
+	private int ptrs(Random r) {
+		for (;;) {
+			double u = r.nextDouble() - 0.5;
+			double v = r.nextDouble();
+			double us = 0.5 - Math.abs(u);
+			int k = (int) Math.floor((2 * a / us + b) * u + lambda + 0.43);
+			
+			if (us >= 0.07 && v <= vr)
+				return k;
+			
+			if (k < 0 || (us < 0.013 && v > us))
+				continue;
+			
+			if (Math.log(v) + Math.log(invAlpha) - Math.log(a / (us * us) + b) <= -lambda
+					+ k * logLambda - logFactorial(k))
+				return k;
+		}
+	}
+	
+	private static final double[] LOG_FACTORIALS = new double[256];
+	
+	static {
+		for (int i = 1; i < LOG_FACTORIALS.length; i++) {
+			LOG_FACTORIALS[i] = LOG_FACTORIALS[i - 1] + Math.log(i);
+		}
+	}
+	
+	/**
+	 * log(k!), from a table for small k and from Stirling's series otherwise.
+	 */
+	static double logFactorial(int k) {
+		if (k < LOG_FACTORIALS.length)
+			return LOG_FACTORIALS[k];
+		
+		double x = k + 1;
+		return (x - 0.5) * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI) + 1.0
+				/ (12.0 * x) - 1.0 / (360.0 * x * x * x);
+	}
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.statistics;
+
+import hardware.transceiver.Transceiver;
+import nodes.Node;
+
+/**
+ * Reception outcome counters of all transceivers of a network.
+ */
+public class RadioStatistics {
+
+	public long received = 0;
+	public long corrupted = 0;
+	public long lostToNoise = 0;
+	public long droppedWhileTransmitting = 0;
+	public long ccaBusy = 0;
+
+	public static RadioStatistics collect(Node[] nodes) {
+		RadioStatistics statistics = new RadioStatistics();
+
+		for (int i = 0; i < nodes.length; i++) {
+			statistics.add(nodes[i].getTransceiver());
+		}
+
+		return statistics;
+	}
+
+	public void add(Transceiver transceiver) {
+		received += transceiver.getReceived();
+		corrupted += transceiver.getCorrupted();
+		lostToNoise += transceiver.getLostToNoise();
+		droppedWhileTransmitting += transceiver.getDroppedWhileTransmitting();
+		ccaBusy += transceiver.getCcaBusy();
+	}
+
+	public String toString() {
+		return "received " + received + " corrupted " + corrupted
+				+ " lostToNoise " + lostToNoise + " droppedWhileTransmitting "
+				+ droppedWhileTransmitting + " ccaBusy " + ccaBusy;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.statistics;
+
+/**
+ * Keyed random streams of a run. Each stream is identified by an entity,
+ * i.e. the ID of a node or {@link #SIMULATION} for the entities of the
+ * simulation itself, and by its purpose. The seed of a stream is derived
+ * by hashing the seed of the run, the entity and the purpose, so a stream
+ * does not depend on the order in which the streams are created or on the
+ * number of threads, and an entity drawing more or fewer numbers does not
+ * shift the draws of any other entity.
+ * 
+ * Streams are {@link XoroshiroRandom} instances and must be used by a
+ * single thread, see {@link nodes.Node#getRandom(int)} for the streams of a
+ * node.
+ */
+public class RandomStreams {
+
+	/** entity of the streams which do not belong to a node */
+	public static final int SIMULATION = 0;
+
+	/** backoff and waiting times of the MAC layer */
+	public static final int MAC = 0;
+	/** fading of the radio signals and packet loss */
+	public static final int RADIO = 1;
+	/** drift and initial value of the hardware clock */
+	public static final int CLOCK = 2;
+	/** jitter and decisions of the application protocol */
+	public static final int APP = 3;
+	/** movement of the node */
+	public static final int MOBILITY = 4;
+	/** placement of the nodes by a topology */
+	public static final int TOPOLOGY = 5;
+	/** static fading of the links, see {@link nodes.Channel#createLinkStream} */
+	public static final int LINKS = 6;
+
+	public static final int NUM_PURPOSES = 7;
+
+	/**
+	 * Creates the stream of the given entity and purpose. Creating the same
+	 * stream twice restarts its sequence.
+	 */
+	public static XoroshiroRandom create(long entity, int purpose) {
+		return new XoroshiroRandom(key(key(Distribution.getSeed(), entity), purpose));
+	}
+
+	/**
+	 * Creates the counter-based stream of the given entity and purpose, any
+	 * of its draws can be regenerated through
+	 * {@link PhiloxRandom#setCounter(long)}.
+	 */
+	public static PhiloxRandom createCounterBased(long entity, int purpose) {
+		return new PhiloxRandom(key(key(Distribution.getSeed(), entity), purpose));
+	}
+
+	/**
+	 * @return the key of the child within the stream hierarchy of the parent
+	 */
+	public static long key(long parent, long child) {
+		return XoroshiroRandom.mix64(parent ^ XoroshiroRandom.mix64(child + 0x9e3779b97f4a7c15L));
+	}
+}
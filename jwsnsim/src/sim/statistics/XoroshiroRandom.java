@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.statistics;
+
+import java.util.Random;
+
+/**
+ * Random number generator based on xoroshiro128+ which is seeded through
+ * SplitMix64. It is much faster than {@link java.util.Random} since it does
+ * not synchronize on an atomic seed and its {@link #nextGaussian()} uses the
+ * ziggurat method instead of the polar method.
+ * 
+ * Instances are not thread safe. Independent streams should be obtained from
+ * {@link RandomStreams} or by {@link #split()}, e.g. one stream for each
+ * node or channel. Since it
+ * extends {@link java.util.Random}, it can be passed to every
+ * {@link Distribution#nextSample(Random)}.
+ */
+public class XoroshiroRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	private long s0;
+	private long s1;
+
+	/** jump polynomial which advances the generator 2^64 steps */
+	private static final long JUMP[] = { 0xdf900294d8f554a5L, 0x170865df4b3201fcL };
+
+	public XoroshiroRandom(long seed) {
+		super(seed);
+	}
+
+	private XoroshiroRandom(long s0, long s1) {
+		super(0);
+		this.s0 = s0;
+		this.s1 = s1;
+	}
+
+	/**
+	 * SplitMix64 step, used to expand a single seed into the generator state.
+	 */
+	public static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		s0 = mix64(seed += 0x9e3779b97f4a7c15L);
+		s1 = mix64(seed + 0x9e3779b97f4a7c15L);
+
+		/* the all zero state is not allowed */
+		if (s0 == 0 && s1 == 0)
+			s1 = 0x9e3779b97f4a7c15L;
+	}
+
+	@Override
+	public long nextLong() {
+		final long a = s0;
+		long b = s1;
+		final long result = a + b;
+
+		b ^= a;
+		s0 = Long.rotateLeft(a, 24) ^ b ^ (b << 16);
+		s1 = Long.rotateLeft(b, 37);
+
+		return result;
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	@Override
+	public float nextFloat() {
+		return (nextLong() >>> 40) * 0x1.0p-24f;
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+	@Override
+	public double nextGaussian() {
+		return Ziggurat.nextGaussian(this);
+	}
+
+	public double nextExponential() {
+		return Ziggurat.nextExponential(this);
+	}
+
+	/**
+	 * Returns a new generator which starts at the current state of this one,
+	 * and then advances this generator 2^64 steps. Hence, the returned stream
+	 * and all subsequent draws from this generator never overlap.
+	 * 
+	 * @return an independent random stream
+	 */
+	public XoroshiroRandom split() {
+		XoroshiroRandom stream = new XoroshiroRandom(s0, s1);
+		jump();
+		return stream;
+	}
+
+	private void jump() {
+		long t0 = 0;
+		long t1 = 0;
+
+		for (int i = 0; i < JUMP.length; i++) {
+			for (int b = 0; b < 64; b++) {
+				if ((JUMP[i] & (1L << b)) != 0) {
+					t0 ^= s0;
+					t1 ^= s1;
+				}
+				nextLong();
+			}
+		}
+
+		s0 = t0;
+		s1 = t1;
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2014, Ege University
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the
+ *   distribution.
+ * - Neither the name of the copyright holder nor the names of
+ *   its contributors may be used to endorse or promote products derived
+ *   from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS
+ * FOR A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * @author Kasım Sinan YILDIRIM (sinanyil81@gmail.com)
+ *
+ */
+package sim.statistics;
+
+import java.util.Random;
+
+/**
+ * Ziggurat method of Marsaglia and Tsang for sampling the standard normal
+ * and the standard exponential distributions. Almost all samples are
+ * produced by a single random long, a table lookup and a multiplication.
+ * 
+ * The table index and the sample value are taken from different bits of the
+ * random long in order to avoid the correlation of the original algorithm.
+ */
+public class Ziggurat {
+
+	/* normal distribution tables (128 layers) */
+	private static final double NORMAL_R = 3.442619855899;
+	private static final int[] kn = new int[128];
+	private static final double[] wn = new double[128];
+	private static final double[] fn = new double[128];
+
+	/* exponential distribution tables (256 layers) */
+	private static final double EXP_R = 7.697117470131487;
+	private static final long[] ke = new long[256];
+	private static final double[] we = new double[256];
+	private static final double[] fe = new double[256];
+
+	static {
+		double m1 = 2147483648.0;
+		double dn = NORMAL_R;
+		double tn = dn;
+		double vn = 9.91256303526217e-3;
+		double q = vn / Math.exp(-0.5 * dn * dn);
+
+		kn[0] = (int) ((dn / q) * m1);
+		kn[1] = 0;
+		wn[0] = q / m1;
+		wn[127] = dn / m1;
+		fn[0] = 1.0;
+		fn[127] = Math.exp(-0.5 * dn * dn);
+
+		for (int i = 126; i >= 1; i--) {
+			dn = Math.sqrt(-2.0 * Math.log(vn / dn + Math.exp(-0.5 * dn * dn)));
+			kn[i + 1] = (int) ((dn / tn) * m1);
+			tn = dn;
+			fn[i] = Math.exp(-0.5 * dn * dn);
+			wn[i] = dn / m1;
+		}
+
+		double m2 = 4294967296.0;
+		double de = EXP_R;
+		double te = de;
+		double ve = 3.949659822581572e-3;
+		q = ve / Math.exp(-de);
+
+		ke[0] = (long) ((de / q) * m2);
+		ke[1] = 0;
+		we[0] = q / m2;
+		we[255] = de / m2;
+		fe[0] = 1.0;
+		fe[255] = Math.exp(-de);
+
+		for (int i = 254; i >= 1; i--) {
+			de = -Math.log(ve / de + Math.exp(-de));
+			ke[i + 1] = (long) ((de / te) * m2);
+			te = de;
+			fe[i] = Math.exp(-de);
+			we[i] = de / m2;
+		}
+	}
+
+	/**
+	 * Returns a sample from the standard normal distribution.
+	 */
+	public static double nextGaussian(Random r) {
+		long bits = r.nextLong();
+		int hz = (int) (bits >> 32);
+		int iz = (int) bits & 127;
+
+		if (Math.abs(hz) < kn[iz])
+			return hz * wn[iz];
+
+		return normalTail(r, hz, iz);
+	}
+
+	private static double normalTail(Random r, int hz, int iz) {
+		for (;;) {
+			double x = hz * wn[iz];
+
+			if (iz == 0) {
+				/* sample from the base strip beyond R */
+				double y;
+				do {
+					x = -Math.log(uniform(r)) / NORMAL_R;
+					y = -Math.log(uniform(r));
+				} while (y + y < x * x);
+
+				return hz > 0 ? NORMAL_R + x : -NORMAL_R - x;
+			}
+
+			if (fn[iz] + r.nextDouble() * (fn[iz - 1] - fn[iz]) < Math.exp(-0.5 * x * x))
+				return x;
+
+			long bits = r.nextLong();
+			hz = (int) (bits >> 32);
+			iz = (int) bits & 127;
+
+			if (Math.abs(hz) < kn[iz])
+				return hz * wn[iz];
+		}
+	}
+
+	/**
+	 * Returns a sample from the exponential distribution with mean 1.
+	 */
+	public static double nextExponential(Random r) {
+		long bits = r.nextLong();
+		long jz = bits >>> 32;
+		int iz = (int) bits & 255;
+
+		if (jz < ke[iz])
+			return jz * we[iz];
+
+		return exponentialTail(r, jz, iz);
+	}
+
+	private static double exponentialTail(Random r, long jz, int iz) {
+		for (;;) {
+			if (iz == 0)
+				return EXP_R - Math.log(uniform(r));
+
+			double x = jz * we[iz];
+			if (fe[iz] + r.nextDouble() * (fe[iz - 1] - fe[iz]) < Math.exp(-x))
+				return x;
+
+			long bits = r.nextLong();
+			jz = bits >>> 32;
+			iz = (int) bits & 255;
+
+			if (jz < ke[iz])
+				return jz * we[iz];
+		}
+	}
+
+	/** uniform sample in (0,1] so that its logarithm is always defined */
+	private static double uniform(Random r) {
+		return 1.0 - r.nextDouble();
+	}
+}
@@ -0,0 +1,75 @@
+package sim.topology;
+
+import java.io.IOException;
+
+import nodes.NodeFactory;
+import nodes.Position;
+import sim.configuration.AreaConfiguration;
+
+/**
+ * Places the nodes at the positions read from a text or binary position
+ * file, see {@link PositionReader}. Positions are streamed from the file as
+ * the nodes are created and each one is checked against the dimensions of
+ * {@link AreaConfiguration}. Files can be converted with
+ * {@link PositionFileConverter}.
+ */
+public class FileTopology extends Topology {
+	private String fileName;
+	private PositionReader reader;
+	private double[] coords = new double[3];
+
+	public FileTopology(String fileName) {
+		this.fileName = fileName;
+	}
+
+	public void initialize() {
+		try {
+			reader = new PositionReader(fileName);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.out.println("Problem reading position file " + fileName);
+			System.exit(-1);
+		}
+
+		if (reader.getCount() >= 0 && reader.getCount() < NodeFactory.numNodes) {
+			System.out.println(fileName + " contains " + reader.getCount()
+					+ " positions, " + NodeFactory.numNodes + " are needed");
+			System.exit(-1);
+		}
+	}
+
+	public Position getNextPosition() {
+		boolean found = false;
+		try {
+			found = reader.next(coords);
+		} catch (IOException e) {
+			System.out.println(fileName + ": " + e.getMessage());
+			System.exit(-1);
+		}
+
+		if (!found) {
+			System.out.println(fileName + " contains only " + reader.getIndex()
+					+ " positions, " + NodeFactory.numNodes + " are needed");
+			System.exit(-1);
+		}
+
+		if (!isInside(coords)) {
+			System.out.println(fileName + ": position " + reader.getIndex() + " ("
+					+ coords[0] + ", " + coords[1] + ", " + coords[2]
+					+ ") is outside of the area");
+			System.exit(-1);
+		}
+
+		return new Position(coords[0], coords[1], coords[2]);
+	}
+
+	/**
+	 * @return true if the coordinates are within the dimensions of
+	 *         {@link AreaConfiguration}
+	 */
+	public static boolean isInside(double[] coords) {
+		return coords[0] >= 0 && coords[0] <= AreaConfiguration.dimX
+				&& coords[1] >= 0 && coords[1] <= AreaConfiguration.dimY
+				&& coords[2] >= 0 && coords[2] <= AreaConfiguration.dimZ;
+	}
+}
@@ -0,0 +1,152 @@
+package sim.topology;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+
+import sim.configuration.AreaConfiguration;
+
+/**
+ * Converts position files between the text and the binary format of
+ * {@link PositionReader} and reports the positions outside of the area of
+ * {@link AreaConfiguration}. The output format is the other format of the
+ * input file; without an output file the positions are only validated.
+ * 
+ * Usage: PositionFileConverter input [output] [dimX dimY [dimZ]]
+ */
+public class PositionFileConverter {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: PositionFileConverter input [output] [dimX dimY [dimZ]]");
+			System.exit(-1);
+		}
+
+		String output = args.length > 1 && !isInteger(args[1]) ? args[1] : null;
+		int dimArg = output == null ? 1 : 2;
+		if (args.length > dimArg + 1) {
+			AreaConfiguration.dimX = Integer.parseInt(args[dimArg]);
+			AreaConfiguration.dimY = Integer.parseInt(args[dimArg + 1]);
+			if (args.length > dimArg + 2)
+				AreaConfiguration.dimZ = Integer.parseInt(args[dimArg + 2]);
+		}
+
+		PositionReader reader = new PositionReader(args[0]);
+		if (output == null)
+			validate(reader, null);
+		else if (reader.isBinary())
+			toText(reader, output);
+		else
+			toBinary(reader, output);
+	}
+
+	/**
+	 * Reads all positions and prints their bounding box and the number of
+	 * positions outside of the area.
+	 */
+	static void validate(PositionReader reader, PositionSink sink) throws IOException {
+		double[] coords = new double[3];
+		double[] min = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+		double[] max = { -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+		int outside = 0;
+
+		while (reader.next(coords)) {
+			for (int d = 0; d < 3; d++) {
+				min[d] = Math.min(min[d], coords[d]);
+				max[d] = Math.max(max[d], coords[d]);
+			}
+
+			if (!FileTopology.isInside(coords)) {
+				if (outside < 10)
+					System.out.println("position " + reader.getIndex() + " ("
+							+ coords[0] + ", " + coords[1] + ", " + coords[2] + ") is outside of the area");
+				outside++;
+			}
+
+			if (sink != null)
+				sink.write(coords);
+		}
+
+		System.out.println(reader.getIndex() + " positions, x [" + min[0] + ", " + max[0]
+				+ "], y [" + min[1] + ", " + max[1] + "], z [" + min[2] + ", " + max[2]
+				+ "], " + outside + " outside of " + AreaConfiguration.dimX + "x"
+				+ AreaConfiguration.dimY + "x" + AreaConfiguration.dimZ);
+	}
+
+	static void toBinary(final PositionReader reader, String output) throws IOException {
+		final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(output), 1 << 16));
+		final int[] dimensions = { 0 };
+
+		/* the header is patched once the number of positions is known */
+		out.writeInt(PositionReader.MAGIC);
+		out.writeInt(0);
+		out.writeInt(0);
+
+		try {
+			validate(reader, new PositionSink() {
+				public void write(double[] coords) throws IOException {
+					if (dimensions[0] == 0)
+						dimensions[0] = reader.getDimensions();
+					for (int d = 0; d < dimensions[0]; d++)
+						out.writeFloat((float) coords[d]);
+				}
+			});
+		} finally {
+			out.close();
+		}
+
+		RandomAccessFile raf = new RandomAccessFile(output, "rw");
+		try {
+			raf.seek(4);
+			raf.writeInt(dimensions[0] == 0 ? 2 : dimensions[0]);
+			raf.writeInt(reader.getIndex());
+		} finally {
+			raf.close();
+		}
+	}
+
+	static void toText(PositionReader reader, String output) throws IOException {
+		final BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(output), "US-ASCII"), 1 << 16);
+		final int dimensions = reader.getDimensions();
+
+		try {
+			validate(reader, new PositionSink() {
+				public void write(double[] coords) throws IOException {
+					out.write(format(coords[0]));
+					for (int d = 1; d < dimensions; d++) {
+						out.write(',');
+						out.write(format(coords[d]));
+					}
+					out.write('\n');
+				}
+			});
+		} finally {
+			out.close();
+		}
+	}
+
+	/* the coordinates of binary files are floats */
+	private static String format(double value) {
+		return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value)
+				: Float.toString((float) value);
+	}
+
+	private static boolean isInteger(String arg) {
+		try {
+			Integer.parseInt(arg);
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	interface PositionSink {
+		void write(double[] coords) throws IOException;
+	}
+}
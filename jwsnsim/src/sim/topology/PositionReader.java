@@ -0,0 +1,259 @@
+package sim.topology;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads node positions from a memory-mapped file, one position at a time.
+ * Two formats are supported:
+ * <ul>
+ * <li>binary: the int {@link #MAGIC}, the number of dimensions (2 or 3),
+ * the number of positions and then the coordinates as floats, big endian</li>
+ * <li>text: one position per line with 2 or 3 coordinates separated by
+ * commas, semicolons or white space. Lines starting with '#' and lines
+ * which do not start with a number, e.g. a CSV header, are skipped.</li>
+ * </ul>
+ * Files must be smaller than 2 GB.
+ */
+public class PositionReader {
+
+	public static final int MAGIC = 0x4a575350; // "JWSP"
+	public static final int HEADER_SIZE = 12;
+
+	private static final double[] POWERS_OF_TEN = new double[23];
+
+	static {
+		POWERS_OF_TEN[0] = 1.0;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++)
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+	}
+
+	private ByteBuffer buffer;
+	private boolean binary;
+	private int dimensions = 0;
+	private int count = -1;
+	private int index = 0;
+	private int line = 0;
+
+	public PositionReader(String fileName) throws IOException {
+		File file = new File(fileName);
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException(fileName + " is larger than 2 GB");
+
+			/* the mapping stays valid after the file is closed */
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			raf.close();
+		}
+
+		binary = buffer.remaining() >= HEADER_SIZE && buffer.getInt(0) == MAGIC;
+		if (binary) {
+			buffer.position(4);
+			dimensions = buffer.getInt();
+			count = buffer.getInt();
+
+			if ((dimensions != 2 && dimensions != 3) || count < 0
+					|| buffer.remaining() != 4L * dimensions * count)
+				throw new IOException(fileName + " is not a valid binary position file");
+		}
+	}
+
+	/**
+	 * Reads the next position into the given array, missing z coordinates
+	 * are set to 0.
+	 * 
+	 * @return false if there are no more positions
+	 */
+	public boolean next(double[] coords) throws IOException {
+		coords[2] = 0;
+
+		if (binary) {
+			if (index == count)
+				return false;
+
+			for (int d = 0; d < dimensions; d++)
+				coords[d] = buffer.getFloat();
+
+			index++;
+			return true;
+		}
+
+		while (buffer.hasRemaining()) {
+			line++;
+			skipBlanks();
+
+			if (buffer.hasRemaining() && isNumberStart(buffer.get(buffer.position()))) {
+				int d = 0;
+				while (d < 3 && buffer.hasRemaining() && isNumberStart(buffer.get(buffer.position()))) {
+					coords[d++] = parseNumber();
+					skipSeparators();
+				}
+
+				if (d < 2 || !atLineEnd())
+					throw new IOException("invalid position in line " + line);
+				if (dimensions == 0)
+					dimensions = d;
+
+				skipLine();
+				index++;
+				return true;
+			}
+
+			skipLine();
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return the number of positions of a binary file, -1 for text files
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the number of coordinates per position, 0 for a text file
+	 *         before the first position is read
+	 */
+	public int getDimensions() {
+		return dimensions;
+	}
+
+	/**
+	 * @return the number of positions read so far
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return the line of the last position of a text file
+	 */
+	public int getLine() {
+		return line;
+	}
+
+	public boolean isBinary() {
+		return binary;
+	}
+
+	private static boolean isNumberStart(byte b) {
+		return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.';
+	}
+
+	private void skipBlanks() {
+		while (buffer.hasRemaining()) {
+			byte b = buffer.get(buffer.position());
+			if (b != ' ' && b != '\t' && b != '\r')
+				return;
+			buffer.get();
+		}
+	}
+
+	private void skipSeparators() {
+		skipBlanks();
+		if (buffer.hasRemaining()) {
+			byte b = buffer.get(buffer.position());
+			if (b == ',' || b == ';') {
+				buffer.get();
+				skipBlanks();
+			}
+		}
+	}
+
+	private boolean atLineEnd() {
+		return !buffer.hasRemaining() || buffer.get(buffer.position()) == '\n';
+	}
+
+	private void skipLine() {
+		while (buffer.hasRemaining() && buffer.get() != '\n')
+			;
+	}
+
+	/**
+	 * Parses a decimal number in place. Numbers with more than 18 digits or
+	 * large exponents are handed to Double.parseDouble.
+	 */
+	private double parseNumber() throws IOException {
+		int start = buffer.position();
+		boolean negative = false;
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean any = false;
+
+		byte b = buffer.get(start);
+		if (b == '-' || b == '+') {
+			negative = b == '-';
+			buffer.get();
+		}
+
+		while (buffer.hasRemaining() && (b = buffer.get(buffer.position())) >= '0' && b <= '9') {
+			buffer.get();
+			any = true;
+			if (digits < 18) {
+				mantissa = mantissa * 10 + (b - '0');
+				if (mantissa > 0)
+					digits++;
+			} else {
+				exponent++;
+				digits++;
+			}
+		}
+
+		if (buffer.hasRemaining() && buffer.get(buffer.position()) == '.') {
+			buffer.get();
+			while (buffer.hasRemaining() && (b = buffer.get(buffer.position())) >= '0' && b <= '9') {
+				buffer.get();
+				any = true;
+				if (digits < 18) {
+					mantissa = mantissa * 10 + (b - '0');
+					exponent--;
+					if (mantissa > 0)
+						digits++;
+				} else {
+					digits++;
+				}
+			}
+		}
+
+		if (buffer.hasRemaining() && ((b = buffer.get(buffer.position())) == 'e' || b == 'E')) {
+			buffer.get();
+			boolean negativeExponent = false;
+			if (buffer.hasRemaining() && ((b = buffer.get(buffer.position())) == '-' || b == '+')) {
+				negativeExponent = b == '-';
+				buffer.get();
+			}
+			int value = 0;
+			while (buffer.hasRemaining() && (b = buffer.get(buffer.position())) >= '0' && b <= '9') {
+				buffer.get();
+				value = Math.min(value * 10 + (b - '0'), 10000);
+			}
+			exponent += negativeExponent ? -value : value;
+		}
+
+		if (!any)
+			throw new IOException("invalid number in line " + line);
+
+		double result;
+		if (digits <= 15 && exponent >= -22 && exponent <= 22) {
+			/* both operands are exact, so the result is correctly rounded */
+			result = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+					: mantissa * POWERS_OF_TEN[exponent];
+		} else {
+			byte[] text = new byte[buffer.position() - start];
+			for (int i = 0; i < text.length; i++)
+				text[i] = buffer.get(start + i);
+			return Double.parseDouble(new String(text, "US-ASCII"));
+		}
+
+		return negative ? -result : result;
+	}
+}
@@ -4,11 +4,11 @@ import java.util.Random;
 
 import nodes.Position;
 import sim.configuration.AreaConfiguration;
-import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
 
 public class RandomDeployment extends Topology{
 	// The random-number generator
-	static public Random rand = Distribution.getRandom();
+	public Random rand = RandomStreams.create(RandomStreams.SIMULATION, RandomStreams.TOPOLOGY);
 	
 	/* (non-Javadoc)
 	 * @see distributionModels.DistributionModelInterface#getOnePosition()
@@ -0,0 +1,70 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import nodes.Channel;
+import nodes.ConnectivityCache;
+import nodes.Node;
+import nodes.NodeFactory;
+import nodes.SignalRadioModel;
+
+import org.junit.Test;
+
+import sim.benchmark.BeaconNode;
+import sim.configuration.ConnectivityConfiguration;
+import sim.statistics.Distribution;
+import sim.statistics.RandomStreams;
+import sim.topology.Grid2D;
+
+public class ConnectivityCacheTest {
+	private static final int NUM_NODES = 200;
+
+	/**
+	 * @return the neighbor IDs and exact static fadings of every channel,
+	 *         followed by the next draw of the radio stream of every node
+	 */
+	private String links(String cacheDirectory) {
+		Distribution.setSeed(7);
+		ConnectivityConfiguration.cacheDirectory = cacheDirectory;
+		ConnectivityCache.clear();
+		NodeFactory.setRadioModel(new SignalRadioModel());
+		NodeFactory.createNodes(BeaconNode.class.getName(), NUM_NODES, new Grid2D());
+
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < NUM_NODES; i++) {
+			Channel channel = NodeFactory.nodes[i].getChannel();
+			Node[] neighbors = channel.getNeighbors();
+			for (int k = 0; k < neighbors.length; k++)
+				s.append(neighbors[k].getID()).append(':')
+						.append(Double.doubleToLongBits(channel.getStaticFading(k))).append(' ');
+			s.append(NodeFactory.nodes[i].getRandom(RandomStreams.RADIO).nextLong()).append('\n');
+		}
+		return s.toString();
+	}
+
+	@Test
+	public void sameNetwork() throws Exception {
+		File directory = File.createTempFile("csr", "");
+		directory.delete();
+
+		try {
+			String computed = links(null);
+			String miss = links(directory.getPath());
+			String hit = links(directory.getPath());
+
+			assertTrue(directory.list().length == 1);
+			assertEquals(computed, miss);
+			assertEquals(computed, hit);
+		} finally {
+			ConnectivityConfiguration.cacheDirectory = null;
+			ConnectivityCache.clear();
+			File[] files = directory.listFiles();
+			for (int i = 0; files != null && i < files.length; i++)
+				files[i].delete();
+			directory.delete();
+		}
+	}
+}
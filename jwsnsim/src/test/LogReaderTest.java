@@ -0,0 +1,110 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import application.LogReader;
+import application.Logger;
+import core.SimulationEvent;
+import core.SimulationEventObserver;
+import core.Simulator;
+
+public class LogReaderTest {
+	private static final int SECONDS = 8;
+	private static final int LINES_PER_SECOND = 30000;
+
+	/**
+	 * Logs LINES_PER_SECOND lines at every second, about 1 MB, so the log
+	 * has several blocks.
+	 */
+	private List<String> write(final String file) {
+		final List<String> lines = new ArrayList<String>();
+		final Logger logger = new Logger(file, true, Deflater.BEST_SPEED);
+
+		Simulator.getInstance().reset();
+		SimulationEvent event = new SimulationEvent(new SimulationEventObserver() {
+			public void signal(SimulationEvent event) {
+				long second = Simulator.getInstance().getSecond();
+				for (int i = 0; i < LINES_PER_SECOND; i++) {
+					String line = second + " " + (i + 1) + " " + (second * 1000003 + i) + " 1065353216";
+					logger.log(line);
+					lines.add(line);
+				}
+				if (second + 1 < SECONDS)
+					event.register(1024 * 1024);
+			}
+		});
+		event.register(0);
+		for (int i = 0; i < SECONDS; i++)
+			Simulator.getInstance().tick();
+
+		logger.close();
+		return lines;
+	}
+
+	@Test
+	public void roundTrip() throws IOException {
+		File file = File.createTempFile("log", ".txt");
+		List<String> lines = write(file.getPath());
+
+		LogReader reader = new LogReader(file.getPath());
+		assertTrue(reader.getNumBlocks() > 1);
+		for (int i = 0; i < lines.size(); i++)
+			assertEquals(lines.get(i), reader.readLine());
+		assertTrue(reader.readLine() == null);
+		reader.close();
+
+		/* the blocks are gzip members, so the log is a gzip file */
+		BufferedReader gzip = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file))));
+		for (int i = 0; i < lines.size(); i++)
+			assertEquals(lines.get(i), gzip.readLine());
+		assertTrue(gzip.readLine() == null);
+		gzip.close();
+
+		new File(file.getPath() + ".idx").delete();
+		file.delete();
+	}
+
+	@Test
+	public void seek() throws IOException {
+		File file = File.createTempFile("log", ".txt");
+		write(file.getPath());
+
+		LogReader reader = new LogReader(file.getPath());
+		for (long second = 0; second < SECONDS; second++) {
+			reader.seek(second * 1024 * 1024);
+
+			/* the block starts at or before the second and reaches its first line */
+			String line = reader.readLine();
+			assertTrue(LogReader.secondOf(line) <= second);
+			while (LogReader.secondOf(line) < second)
+				line = reader.readLine();
+			assertEquals(second + " 1 " + second * 1000003 + " 1065353216", line);
+		}
+		reader.close();
+
+		new File(file.getPath() + ".idx").delete();
+		file.delete();
+	}
+
+	@Test
+	public void secondOf() {
+		assertEquals(12, LogReader.secondOf("12 3 456 789"));
+		assertEquals(0, LogReader.secondOf("0"));
+		assertEquals(-1, LogReader.secondOf("Node 12"));
+		assertEquals(-1, LogReader.secondOf("12a 3"));
+		assertEquals(-1, LogReader.secondOf(""));
+	}
+}
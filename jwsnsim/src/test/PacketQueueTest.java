@@ -0,0 +1,48 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import hardware.transceiver.Packet;
+import nodes.PacketQueue;
+
+import org.junit.Test;
+
+import sim.configuration.MacConfiguration;
+
+public class PacketQueueTest {
+
+	private Packet[] fill(PacketQueue queue) {
+		Packet[] packets = new Packet[4];
+		for (int i = 0; i < packets.length; i++) {
+			packets[i] = new Packet(new Integer(i));
+			queue.add(packets[i]);
+		}
+		return packets;
+	}
+
+	@Test
+	public void dropNewest() {
+		PacketQueue queue = new PacketQueue(2, MacConfiguration.DROP_NEWEST);
+		Packet[] packets = fill(queue);
+
+		assertEquals(4, queue.getArrivals());
+		assertEquals(2, queue.getEnqueued());
+		assertEquals(2, queue.getDropped());
+		assertTrue(packets[0] == queue.peek());
+		/* arrivals see 0, 1, 2 and 2 queued packets */
+		assertEquals(1.25, queue.getMeanOccupancy(), 1e-12);
+	}
+
+	@Test
+	public void dropOldest() {
+		PacketQueue queue = new PacketQueue(2, MacConfiguration.DROP_OLDEST);
+		Packet[] packets = fill(queue);
+
+		assertEquals(4, queue.getArrivals());
+		assertEquals(4, queue.getEnqueued());
+		assertEquals(2, queue.getDropped());
+		assertTrue(packets[2] == queue.poll());
+		assertTrue(packets[3] == queue.poll());
+		assertEquals(1.25, queue.getMeanOccupancy(), 1e-12);
+	}
+}
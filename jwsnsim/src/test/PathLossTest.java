@@ -0,0 +1,49 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import hardware.transceiver.PathLossTable;
+import hardware.transceiver.RadioSignal;
+
+import org.junit.Test;
+
+import sim.statistics.XoroshiroRandom;
+
+public class PathLossTest {
+
+	@Test
+	public void errorBound() {
+		PathLossTable table = PathLossTable.create(RadioSignal.fallingFactorHalf, RadioSignal.maxPathLossError);
+		assertTrue(table.getMaxRelativeError() <= 1e-4);
+
+		XoroshiroRandom r = new XoroshiroRandom(0x123456L);
+		for (int i = 0; i < 1000000; i++) {
+			/* squared distances from 2^-20 to 2^52, inside and outside of the table */
+			double distanceSquare = Math.scalb(1.0 + r.nextDouble(), r.nextInt(72) - 20);
+			double exact = table.exact(distanceSquare);
+			assertEquals(0.0, (table.lookup(distanceSquare) - exact) / exact, 1e-4);
+		}
+	}
+
+	@Test
+	public void unreachableBound() {
+		double bound = RadioSignal.maxPathLossError;
+		boolean enabled = RadioSignal.fastPropagation;
+		RadioSignal.fastPropagation = true;
+		RadioSignal.maxPathLossError = 1e-12;
+
+		try {
+			PathLossTable table = RadioSignal.getPathLossTable();
+			assertTrue(table.getMaxRelativeError() > RadioSignal.maxPathLossError);
+
+			/* the largest table is built once, not on every call */
+			for (int i = 0; i < 5; i++) {
+				RadioSignal.getPathLoss(100.0);
+				assertTrue(RadioSignal.getPathLossTable() == table);
+			}
+		} finally {
+			RadioSignal.maxPathLossError = bound;
+			RadioSignal.fastPropagation = enabled;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import sim.statistics.Distribution;
+import sim.statistics.OnlineStatistics;
+import sim.statistics.P2Quantile;
+import sim.statistics.PhiloxRandom;
+import sim.statistics.PoissonDistribution;
+import sim.statistics.RandomStreams;
+import sim.statistics.XoroshiroRandom;
+import sim.statistics.Ziggurat;
+
+public class SamplerTest {
+	private static final int SAMPLES = 1000000;
+
+	@Test
+	public void gaussian() {
+		XoroshiroRandom r = new XoroshiroRandom(0x123456L);
+		double sum = 0, sumSquares = 0;
+		int tail = 0;
+
+		for (int i = 0; i < SAMPLES; i++) {
+			double x = Ziggurat.nextGaussian(r);
+			sum += x;
+			sumSquares += x * x;
+			if (Math.abs(x) > 3.0)
+				tail++;
+		}
+
+		double mean = sum / SAMPLES;
+		assertEquals(0.0, mean, 0.01);
+		assertEquals(1.0, sumSquares / SAMPLES - mean * mean, 0.01);
+		/* P(|X| > 3) = 0.0027 */
+		assertEquals(0.0027, (double) tail / SAMPLES, 0.0005);
+	}
+
+	@Test
+	public void exponential() {
+		XoroshiroRandom r = new XoroshiroRandom(0x123456L);
+		double sum = 0, sumSquares = 0;
+
+		for (int i = 0; i < SAMPLES; i++) {
+			double x = Ziggurat.nextExponential(r);
+			assertTrue(x >= 0.0);
+			sum += x;
+			sumSquares += x * x;
+		}
+
+		double mean = sum / SAMPLES;
+		assertEquals(1.0, mean, 0.01);
+		assertEquals(1.0, sumSquares / SAMPLES - mean * mean, 0.02);
+	}
+
+	@Test
+	public void poisson() {
+		XoroshiroRandom r = new XoroshiroRandom(0x123456L);
+		double[] lambdas = new double[] { 5.0, 10.0, 50.0, 1000.0 };
+
+		for (int l = 0; l < lambdas.length; l++) {
+			PoissonDistribution poisson = new PoissonDistribution(lambdas[l]);
+			double sum = 0, sumSquares = 0;
+
+			for (int i = 0; i < SAMPLES; i++) {
+				double x = poisson.nextSample(r);
+				sum += x;
+				sumSquares += x * x;
+			}
+
+			double mean = sum / SAMPLES;
+			assertEquals(lambdas[l], mean, lambdas[l] * 0.005);
+			assertEquals(lambdas[l], sumSquares / SAMPLES - mean * mean,
+					lambdas[l] * 0.02);
+		}
+	}
+
+	@Test
+	public void splitStreamsDiffer() {
+		XoroshiroRandom root = new XoroshiroRandom(1);
+		XoroshiroRandom a = root.split();
+		XoroshiroRandom b = root.split();
+
+		assertTrue(a.nextLong() != b.nextLong());
+		assertEquals(new XoroshiroRandom(1).split().nextLong(),
+				new XoroshiroRandom(1).split().nextLong());
+	}
+
+	@Test
+	public void keyedStreamsIgnoreCreationOrder() {
+		Distribution.setSeed(7);
+		long first = RandomStreams.create(2, RandomStreams.MAC).nextLong();
+		RandomStreams.create(1, RandomStreams.MAC).nextLong();
+		RandomStreams.create(2, RandomStreams.RADIO).nextLong();
+
+		assertEquals(first, RandomStreams.create(2, RandomStreams.MAC).nextLong());
+		assertTrue(first != RandomStreams.create(2, RandomStreams.RADIO).nextLong());
+		assertTrue(first != RandomStreams.create(3, RandomStreams.MAC).nextLong());
+	}
+
+	/**
+	 * Known answers of Philox4x32-10 from the Random123 distribution.
+	 */
+	@Test
+	public void philoxKnownAnswers() {
+		int[] result = new int[4];
+
+		PhiloxRandom.generate(0, 0, 0, 0, 0, 0, result);
+		assertEquals(0x6627e8d5, result[0]);
+		assertEquals(0xe169c58d, result[1]);
+		assertEquals(0xbc57ac4c, result[2]);
+		assertEquals(0x9b00dbd8, result[3]);
+
+		PhiloxRandom.generate(-1, -1, -1, -1, -1, -1, result);
+		assertEquals(0x408f276d, result[0]);
+		assertEquals(0x41c83b0e, result[1]);
+		assertEquals(0xa20bc7c6, result[2]);
+		assertEquals(0x6d5451fd, result[3]);
+
+		PhiloxRandom.generate(0xa4093822, 0x299f31d0, 0x243f6a88, 0x85a308d3,
+				0x13198a2e, 0x03707344, result);
+		assertEquals(0xd16cfe09, result[0]);
+		assertEquals(0x94fdcceb, result[1]);
+		assertEquals(0x5001e420, result[2]);
+		assertEquals(0x24126ea1, result[3]);
+	}
+
+	@Test
+	public void philoxRandomAccess() {
+		PhiloxRandom sequential = new PhiloxRandom(42, 7);
+		for (int i = 0; i < 100; i++)
+			sequential.nextGaussian();
+		double expected = new PhiloxRandom(42, 8).nextDouble();
+
+		sequential.setCounter(8);
+		assertEquals(expected, sequential.nextDouble(), 0.0);
+	}
+
+	@Test
+	public void onlineStatistics() {
+		XoroshiroRandom r = new XoroshiroRandom(0x123456L);
+		OnlineStatistics statistics = new OnlineStatistics();
+		double max = Double.NEGATIVE_INFINITY;
+
+		for (int i = 0; i < SAMPLES; i++) {
+			/* a large offset loses all precision with the sum of squares */
+			double x = 1e9 + 2.0 * Ziggurat.nextGaussian(r);
+			statistics.add(x);
+			max = Math.max(max, x);
+		}
+
+		assertEquals(1e9, statistics.getMean(), 0.01);
+		assertEquals(4.0, statistics.getVariance(), 0.04);
+		assertEquals(max, statistics.getMax(), 0.0);
+	}
+
+	@Test
+	public void p2Quantiles() {
+		XoroshiroRandom r = new XoroshiroRandom(0x123456L);
+		P2Quantile median = new P2Quantile(0.5);
+		P2Quantile upper = new P2Quantile(0.99);
+		P2Quantile exponential = new P2Quantile(0.9);
+
+		for (int i = 0; i < SAMPLES; i++) {
+			double x = Ziggurat.nextGaussian(r);
+			median.add(x);
+			upper.add(x);
+			exponential.add(Ziggurat.nextExponential(r));
+		}
+
+		assertEquals(0.0, median.getQuantile(), 0.01);
+		assertEquals(2.326, upper.getQuantile(), 0.02);
+		/* -ln(0.1) */
+		assertEquals(2.303, exponential.getQuantile(), 0.02);
+	}
+}
@@ -0,0 +1,66 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileWriter;
+
+import nodes.Node;
+import nodes.NodeFactory;
+import nodes.Position;
+import nodes.mobility.TraceConverter;
+import nodes.mobility.TraceMobility;
+
+import org.junit.Test;
+
+import sim.benchmark.BeaconNode;
+import sim.configuration.MobilityConfiguration;
+import sim.topology.Grid2D;
+
+public class TraceMobilityTest {
+
+	@Test
+	public void roundTrip() throws Exception {
+		File text = File.createTempFile("trace", ".txt");
+		File binary = File.createTempFile("trace", ".bin");
+		text.deleteOnExit();
+		binary.deleteOnExit();
+
+		FileWriter writer = new FileWriter(text);
+		writer.write("# time node x y\n");
+		writer.write("0 1 0 0\n");
+		writer.write("1, 2, 5, 5, 1\n");
+		writer.write("2 1 10 20\n");
+		writer.close();
+
+		TraceConverter.convert(text.getPath(), binary.getPath(), TraceConverter.TICKS_PER_SECOND);
+
+		String traceFile = MobilityConfiguration.traceFile;
+		MobilityConfiguration.traceFile = binary.getPath();
+		try {
+			NodeFactory.createNodes(BeaconNode.class.getName(), 2, new Grid2D());
+			Node first = NodeFactory.nodes[0];
+			Node second = NodeFactory.nodes[1];
+			double oneSecond = TraceConverter.TICKS_PER_SECOND;
+			Position p = new Position();
+
+			/* halfway between the two records of the first node */
+			TraceMobility model = new TraceMobility();
+			model.nextSegment(first, 0);
+			assertEquals(2 * oneSecond, model.getSegmentEndTime(), 0.0);
+			model.getPosition(oneSecond, p);
+			assertEquals(5.0, p.xCoord, 1e-9);
+			assertEquals(10.0, p.yCoord, 1e-9);
+
+			/* the second node stays at its only record */
+			model = new TraceMobility();
+			model.nextSegment(second, 3 * oneSecond);
+			model.getPosition(4 * oneSecond, p);
+			assertEquals(5.0, p.xCoord, 1e-9);
+			assertEquals(5.0, p.yCoord, 1e-9);
+			assertEquals(1.0, p.zCoord, 1e-9);
+		} finally {
+			MobilityConfiguration.traceFile = traceFile;
+		}
+	}
+}